@@ -0,0 +1,36 @@
+plugins {
+    id("me.champeau.jmh") version "0.6.5"
+}
+
+repositories {
+    mavenCentral()
+    maven("https://libraries.minecraft.net")
+    maven("https://oss.sonatype.org/content/repositories/snapshots/")
+}
+
+val brigadierVersion: String = "1.0.17"
+val jmhCoreVersion: String = "1.32"
+
+dependencies {
+    jmhImplementation(project(":emmylib-common"))
+    jmhImplementation("com.mojang", "brigadier", brigadierVersion)
+}
+
+// ./gradlew :emmylib-benchmark:jmh -PjmhThreads=8 -PjmhIncludes=CommandHandlerBenchmark
+jmh {
+    jmhVersion.set(jmhCoreVersion)
+    includes.set(listOf(findProperty("jmhIncludes")?.toString() ?: ".*"))
+    threads.set(findProperty("jmhThreads")?.toString()?.toInt() ?: 4)
+    // throughput, latency percentiles (p99 among them) and allocation rate per operation
+    benchmarkMode.set(listOf("thrpt", "sample"))
+    profilers.set(listOf("gc"))
+    timeUnit.set("us")
+    resultFormat.set("JSON")
+}
+
+tasks {
+    // benchmarks are not part of the library
+    withType<AbstractPublishToMaven>().configureEach {
+        enabled = false
+    }
+}
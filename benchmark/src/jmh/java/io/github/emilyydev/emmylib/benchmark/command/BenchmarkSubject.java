@@ -0,0 +1,55 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.benchmark.command;
+
+import io.github.emilyydev.emmylib.common.command.Permissible;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+
+/**
+ * Command subject holding a fixed set of permissions.
+ */
+public final class BenchmarkSubject implements Permissible {
+
+  private final String name;
+  private final Set<String> permissions;
+
+  public BenchmarkSubject(final String name, final Set<String> permissions) {
+    this.name = name;
+    this.permissions = Set.copyOf(permissions);
+  }
+
+  @Override
+  public boolean hasPermission(final @NotNull String permission) {
+    return this.permissions.contains(permission);
+  }
+
+  @Override
+  public String toString() {
+    return this.name;
+  }
+}
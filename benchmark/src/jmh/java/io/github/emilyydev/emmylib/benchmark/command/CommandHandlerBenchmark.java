@@ -0,0 +1,133 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.benchmark.command;
+
+import com.mojang.brigadier.suggestion.Suggestions;
+import io.github.emilyydev.emmylib.common.command.CommandHandler;
+import io.github.emilyydev.emmylib.common.command.CommandResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executes and completes commands of a large command tree from as many threads as JMH runs with,
+ * for every command handler factory.
+ * <p>
+ * Throughput, latency percentiles and allocation rate are configured in the build script, for
+ * example: {@code ./gradlew :emmylib-benchmark:jmh -PjmhThreads=8 -PjmhIncludes=CommandHandlerBenchmark}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CommandHandlerBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class HandlerState {
+
+    @Param({"immediate", "asynchronousQueued", "customExecutor"})
+    public String factory;
+
+    @Param({"1000", "10000"})
+    public int commands;
+
+    CommandLoad load;
+    CommandHandler<BenchmarkSubject> handler;
+    private ExecutorService customExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      this.load = new CommandLoad(this.commands, 64, 0x5EED);
+      switch (this.factory) {
+        case "immediate":
+          this.handler = CommandHandler.immediateCommandHandler();
+          break;
+        case "asynchronousQueued":
+          this.handler = CommandHandler.asynchronousQueuedCommandHandler();
+          break;
+        case "customExecutor":
+          this.customExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+          this.handler = CommandHandler.customExecutorCommandHandler(this.customExecutor);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown factory " + this.factory);
+      }
+      this.load.register(this.handler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+      this.handler.closeGracefully(Duration.ofSeconds(5L));
+      if (this.customExecutor != null) {
+        this.customExecutor.shutdownNow();
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+
+    private static int threads = 0;
+
+    private final int offset;
+    private int next = 0;
+
+    public ThreadState() {
+      synchronized (ThreadState.class) {
+        // spread threads over the inputs and subjects
+        this.offset = threads++ * 7919;
+      }
+    }
+
+    int next() {
+      return this.offset + this.next++;
+    }
+  }
+
+  @Benchmark
+  public CommandResult execute(final HandlerState handlerState, final ThreadState threadState)
+      throws ExecutionException, InterruptedException {
+    final int index = threadState.next();
+    return handlerState.handler.execute(handlerState.load.input(index), handlerState.load.subject(index)).get();
+  }
+
+  @Benchmark
+  public Suggestions suggestionsFuture(final HandlerState handlerState, final ThreadState threadState) {
+    final int index = threadState.next();
+    return handlerState.handler.suggestionsFuture(handlerState.load.partialInput(index), handlerState.load.subject(index)).join();
+  }
+}
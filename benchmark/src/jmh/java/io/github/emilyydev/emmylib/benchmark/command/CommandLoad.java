@@ -0,0 +1,132 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.benchmark.command;
+
+import io.github.emilyydev.emmylib.common.command.CommandHandler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic load for a {@link CommandHandler} registering {@link SyntheticCommand}s:
+ * command inputs, partial inputs to complete and subjects with and without permissions.
+ */
+public final class CommandLoad {
+
+  private static final String[] DURATIONS = {"30s", "5m", "12d", "1h30m", "3mo5ws2days4.045secs"};
+  private static final String[] POSITIONS = {"0 64 0", "-1.65 1589 -9681.4", "12 70 -300"};
+  private static final int INPUTS = 1024;
+
+  private final List<String> commandNames;
+  private final String[] inputs = new String[INPUTS];
+  private final String[] partialInputs = new String[INPUTS];
+  private final BenchmarkSubject[] subjects;
+
+  /**
+   * @param commands how many commands to register.
+   * @param subjects how many distinct subjects to send commands as.
+   * @param seed     seed of the generated load.
+   */
+  public CommandLoad(final int commands, final int subjects, final long seed) {
+    final Random random = new Random(seed);
+    this.commandNames = new ArrayList<>(commands);
+    for (int i = 0; i < commands; ++i) {
+      // random names so literals share prefixes like real ones do
+      this.commandNames.add(Integer.toString(random.nextInt(Integer.MAX_VALUE), 36) + i);
+    }
+
+    for (int i = 0; i < INPUTS; ++i) {
+      final String name = this.commandNames.get(random.nextInt(commands));
+      this.inputs[i] = input(random, name);
+      this.partialInputs[i] = partialInput(random, name);
+    }
+
+    this.subjects = new BenchmarkSubject[subjects];
+    for (int i = 0; i < subjects; ++i) {
+      // half of the subjects can ban with every command
+      final Set<String> permissions = new HashSet<>();
+      if (i % 2 == 0) {
+        for (final String name : this.commandNames) {
+          permissions.add(name + ".ban");
+        }
+      }
+      this.subjects[i] = new BenchmarkSubject("subject-" + i, permissions);
+    }
+  }
+
+  public void register(final CommandHandler<BenchmarkSubject> handler) {
+    final List<SyntheticCommand> commands = new ArrayList<>(this.commandNames.size());
+    for (final String name : this.commandNames) {
+      commands.add(new SyntheticCommand(name));
+    }
+    handler.addCommands(commands.toArray(SyntheticCommand[]::new));
+  }
+
+  public String input(final int index) {
+    return this.inputs[index & INPUTS - 1];
+  }
+
+  public String partialInput(final int index) {
+    return this.partialInputs[index & INPUTS - 1];
+  }
+
+  public BenchmarkSubject subject(final int index) {
+    return this.subjects[index % this.subjects.length];
+  }
+
+  private static String input(final Random random, final String name) {
+    switch (random.nextInt(5)) {
+      case 0:
+        return name + " ban " + DURATIONS[random.nextInt(DURATIONS.length)];
+      case 1:
+        return name + " mode " + SyntheticCommand.Mode.values()[random.nextInt(4)].name().toLowerCase(Locale.ROOT);
+      case 2:
+        return name + " tp " + POSITIONS[random.nextInt(POSITIONS.length)];
+      case 3:
+        return name + " info";
+      default:
+        // typos happen
+        return name + " mdoe creative";
+    }
+  }
+
+  private static String partialInput(final Random random, final String name) {
+    switch (random.nextInt(4)) {
+      case 0:
+        return name.substring(0, 1 + random.nextInt(name.length()));
+      case 1:
+        return name + ' ';
+      case 2:
+        return name + " mode c";
+      default:
+        return name + " ban 3d";
+    }
+  }
+}
@@ -0,0 +1,82 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.benchmark.command;
+
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import io.github.emilyydev.emmylib.common.command.CommandSegment;
+import io.github.emilyydev.emmylib.common.command.argument.DurationArgumentType;
+import io.github.emilyydev.emmylib.common.command.argument.EnumArgumentType;
+import io.github.emilyydev.emmylib.common.command.argument.Vector3ArgumentType;
+import io.github.emilyydev.emmylib.common.util.Permission;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * A moderately deep command using every bundled argument type, shaped like the commands plugins
+ * usually register:
+ * <pre>
+ * /name
+ *   ban &lt;duration&gt;   (requires name.ban)
+ *   mode &lt;mode&gt;
+ *   tp &lt;position&gt;
+ *   info
+ * </pre>
+ */
+public final class SyntheticCommand implements CommandSegment.Literal<BenchmarkSubject> {
+
+  private final LiteralCommandNode<BenchmarkSubject> commandNode;
+
+  public SyntheticCommand(final String name) {
+    this.commandNode =
+        literal(name)
+            .then(literal("ban")
+                      .requires(Permission.has(name + ".ban").requirement())
+                      .then(argument("duration", DurationArgumentType.duration(Duration.ofSeconds(1L)))
+                                .executes(context -> 1)))
+            .then(literal("mode")
+                      .then(argument("mode", EnumArgumentType.of(Mode.class))
+                                .executes(context -> 1)))
+            .then(literal("tp")
+                      .then(argument("position", Vector3ArgumentType.vec3Arg())
+                                .executes(context -> 1)))
+            .then(literal("info")
+                      .executes(context -> 1))
+            .build();
+  }
+
+  @Override
+  public @NotNull LiteralCommandNode<BenchmarkSubject> commandNode() {
+    return this.commandNode;
+  }
+
+  public enum Mode {
+    SURVIVAL,
+    CREATIVE,
+    ADVENTURE,
+    SPECTATOR
+  }
+}
@@ -0,0 +1,86 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.benchmark.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.github.emilyydev.emmylib.common.command.argument.DurationArgumentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+
+/**
+ * Parses and completes durations with {@link DurationArgumentType} and with the regex based parser it
+ * replaced, {@link RegexDurationArgumentType}.
+ * <p>
+ * For example: {@code ./gradlew :emmylib-benchmark:jmh -PjmhThreads=1 -PjmhIncludes=DurationArgumentTypeBenchmark}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class DurationArgumentTypeBenchmark {
+
+  @Param({"12d", "25mins", "3mo5ws2days4.045secs", "\"3mo 5ws 2days 4.045secs\"", "1y2mo3w4d5h6m7s"})
+  public String input;
+
+  @Param({"scanner", "regex"})
+  public String parser;
+
+  private ArgumentType<Duration> argumentType;
+  private String partialInput;
+
+  @Setup
+  public void setUp() {
+    this.argumentType = this.parser.equals("scanner") ? DurationArgumentType.duration() : new RegexDurationArgumentType();
+    // the input being typed, right before its last time scale
+    int end = this.input.length();
+    while (end > 0 && !Character.isDigit(this.input.charAt(end - 1))) {
+      --end;
+    }
+    this.partialInput = this.input.substring(0, end);
+  }
+
+  @Benchmark
+  public Duration parse() throws CommandSyntaxException {
+    return this.argumentType.parse(new StringReader(this.input));
+  }
+
+  @Benchmark
+  public Suggestions listSuggestions() {
+    return this.argumentType.listSuggestions(null, new SuggestionsBuilder(this.partialInput, 0)).join();
+  }
+}
@@ -0,0 +1,150 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.benchmark.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex based duration parser {@code DurationArgumentType} used before it was rewritten as a
+ * single-pass scanner, kept as the baseline of {@link DurationArgumentTypeBenchmark}. Bounds are left
+ * out, they are checked the same way by both.
+ */
+public final class RegexDurationArgumentType implements ArgumentType<Duration> {
+
+  private static final Map<String, TemporalUnit> SCALES;
+  private static final List<String> SCALES_SUGGESTIONS;
+  private static final Pattern DURATION_PATTERN =
+      Pattern.compile("^" +
+                      "(?:(\\d+(?:\\.\\d+)?)(y)(?:ear)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(mo)(?:nth)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(w)(?:eek)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(d)(?:ay)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(h)(?:r|our)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(m)(?:in|inute)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(?:(s)(?:ec|econd)?s?)?)?" +
+                      "$");
+
+  static {
+    final var builder = new LinkedHashMap<String, TemporalUnit>(7);
+    builder.put("y", ChronoUnit.YEARS);
+    builder.put("mo", ChronoUnit.MONTHS);
+    builder.put("w", ChronoUnit.WEEKS);
+    builder.put("d", ChronoUnit.DAYS);
+    builder.put("h", ChronoUnit.HOURS);
+    builder.put("m", ChronoUnit.MINUTES);
+    builder.put("s", ChronoUnit.SECONDS);
+
+    SCALES = Map.copyOf(builder);
+    SCALES_SUGGESTIONS = List.copyOf(builder.keySet());
+  }
+
+  @Override
+  public Duration parse(final StringReader reader) throws CommandSyntaxException {
+    final String input;
+    if (StringReader.isQuotedStringStart(reader.peek())) {
+      input = reader.readQuotedString().toLowerCase(Locale.ROOT).replaceAll("\\s", "");
+    } else {
+      input = reader.readUnquotedString().toLowerCase(Locale.ROOT);
+    }
+
+    if (input.isEmpty()) {
+      throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
+    }
+
+    final Matcher matcher = DURATION_PATTERN.matcher(input);
+    Duration duration = Duration.ZERO;
+
+    if (matcher.find() && !matcher.group().isEmpty()) {
+      for (int i = 1; i <= SCALES.size(); ++i) {
+        final String current = matcher.group(i * 2 - 1);
+        if (current == null) {
+          continue;
+        }
+
+        final TemporalUnit unit = SCALES.getOrDefault(matcher.group(i * 2), ChronoUnit.SECONDS);
+        final double parsedCurrent = Double.parseDouble(current) * unit.getDuration().getSeconds();
+        duration = duration.plus(Math.round(parsedCurrent), ChronoUnit.SECONDS);
+      }
+    } else {
+      throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
+    }
+
+    return duration;
+  }
+
+  @Override
+  public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
+    final String current = builder.getRemaining().toLowerCase(Locale.ROOT);
+    if (StringReader.isQuotedStringStart(current.charAt(0))) {
+      for (int i = 1; i < current.toCharArray().length; ++i) {
+        if (StringReader.isQuotedStringStart(current.charAt(i))) {
+          return Suggestions.empty();
+        }
+      }
+    }
+    final String sanitized = current.replaceAll("\\s", "");
+    final Matcher matcher = DURATION_PATTERN.matcher(sanitized);
+
+    if (matcher.find()) {
+      int nullGroups = 0;
+      String lastScale = null;
+      for (int i = matcher.groupCount(); i > 0; --i) {
+        final String currentGroup = matcher.group(i);
+        if (currentGroup == null) {
+          ++nullGroups;
+        } else if (SCALES.containsKey(currentGroup) && lastScale == null) {
+          lastScale = currentGroup;
+        }
+      }
+
+      if (nullGroups % 2 == 1) {
+        final int index = SCALES_SUGGESTIONS.indexOf(lastScale) + 1;
+        for (int i = index; i < SCALES_SUGGESTIONS.size(); ++i) {
+          builder.suggest(current + SCALES_SUGGESTIONS.get(i));
+        }
+        return builder.buildFuture();
+      }
+    }
+
+    return Suggestions.empty();
+  }
+}
@@ -0,0 +1,95 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.benchmark.util;
+
+import io.github.emilyydev.emmylib.common.util.MoreUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Formats durations with {@link MoreUtils#formatDuration(Duration, MoreUtils.DurationStyle, StringBuilder)}
+ * into a reused builder, as scoreboards and action bars do every tick, and with the
+ * {@link StringJoinerDurationFormat} it replaced.
+ * <p>
+ * For example: {@code ./gradlew :emmylib-benchmark:jmh -PjmhThreads=1 -PjmhIncludes=DurationFormatBenchmark}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DurationFormatBenchmark {
+
+  @Benchmark
+  public StringBuilder formatDuration(final Styled state) {
+    state.builder.setLength(0);
+    return MoreUtils.formatDuration(state.duration, state.style, state.builder);
+  }
+
+  // doesn't depend on the style, so it has a state of its own
+  @Benchmark
+  public StringBuilder formatDurationLocalized(final Localized state) {
+    state.builder.setLength(0);
+    return MoreUtils.formatDuration(state.duration, Locale.ENGLISH, state.builder);
+  }
+
+  @Benchmark
+  public String stringJoiner(final Styled state) {
+    return state.style == MoreUtils.DurationStyle.SHORT
+           ? StringJoinerDurationFormat.shortDuration(state.duration)
+           : StringJoinerDurationFormat.longDuration(state.duration);
+  }
+
+  @State(Scope.Thread)
+  public static class Localized {
+
+    // 45s, 1h30m, 2d3h4m5s, 1y2mo3w4d5h6m7s
+    @Param({"45", "5400", "183845", "38994811"})
+    public long seconds;
+
+    Duration duration;
+    final StringBuilder builder = new StringBuilder(64);
+
+    @Setup
+    public void setUp() {
+      this.duration = Duration.ofSeconds(this.seconds);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Styled extends Localized {
+
+    @Param({"SHORT", "LONG"})
+    public MoreUtils.DurationStyle style;
+  }
+}
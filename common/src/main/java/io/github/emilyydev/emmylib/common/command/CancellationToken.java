@@ -0,0 +1,95 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.mojang.brigadier.context.CommandContext;
+import org.jetbrains.annotations.NotNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cooperative cancellation signal for a command being executed by a {@link CommandHandler}.
+ * <p>
+ * A command is cancelled when it runs past its timeout or when the future returned by
+ * {@link CommandHandler#execute(String, Object)} is cancelled. Besides the thread running it being
+ * interrupted, long-running commands are expected to poll their token and bail out when cancelled.
+ *
+ * <pre>{@code
+ * literal("scan").executes(context -> {
+ *   final CancellationToken token = CancellationToken.from(context);
+ *   for (final Chunk chunk : chunks) {
+ *     token.throwIfCancelled();
+ *     scan(chunk);
+ *   }
+ *   return Command.SINGLE_SUCCESS;
+ * })
+ * }</pre>
+ */
+public final class CancellationToken {
+
+  // not a valid argument name for any argument registered through brigadier builders
+  static final String ARGUMENT_NAME = "emmylib:cancellation-token";
+
+  private static final CancellationToken NEVER_CANCELLED = new CancellationToken();
+
+  /**
+   * Gets the cancellation token of the command the context belongs to.
+   *
+   * @param context the context of the command being executed.
+   * @return the cancellation token of the command, or a token that is never cancelled if the
+   *     command was not executed through a {@link CommandHandler}.
+   */
+  public static @NotNull CancellationToken from(final @NotNull CommandContext<?> context) {
+    requireNonNull(context, "context");
+    try {
+      return context.getArgument(ARGUMENT_NAME, CancellationToken.class);
+    } catch (final IllegalArgumentException exception) {
+      return NEVER_CANCELLED;
+    }
+  }
+
+  private volatile boolean cancelled = false;
+
+  CancellationToken() { }
+
+  void cancel() {
+    this.cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  /**
+   * Stops the execution of the command if it was cancelled, resulting in a
+   * {@link CommandResult.Type#TIMED_OUT} result.
+   */
+  public void throwIfCancelled() {
+    if (this.cancelled) {
+      CommandResult.Type.TIMED_OUT.throwCustomException();
+    }
+  }
+}
@@ -0,0 +1,462 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Append-only log of executed commands, fed by {@link CommandHandler#auditLog(CommandAuditLog)}.
+ * <p>
+ * Recording a command never blocks nor touches the disk: records are handed to a bounded lock-free
+ * ring buffer and written in batches by a background thread. When the buffer is full, because the
+ * disk can't keep up, new records are dropped and {@linkplain #dropped() counted} instead of piling
+ * up in memory. Once the log file grows past its maximum size it is rotated, keeping a fixed amount
+ * of older files named after it with a numeric suffix ({@code commands.log.1} being the newest).
+ * <p>
+ * Every record is written as a single tab-separated line holding the time the command finished,
+ * the subject, the result type, the latency in microseconds and the input.
+ */
+public final class CommandAuditLog implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CommandAuditLog.class);
+  private static final long DEFAULT_MAX_FILE_SIZE = 16L * 1024L * 1024L;
+  private static final int DEFAULT_MAX_BACKUPS = 4;
+  private static final int DEFAULT_CAPACITY = 8192;
+  private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20L);
+  private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5L);
+
+  /**
+   * Opens an audit log rotated every 16 MiB, keeping 4 older files and up to 8192 pending records.
+   *
+   * @param file the file to append records to.
+   * @return the audit log.
+   * @throws IOException if the file could not be opened.
+   */
+  @Contract("_ -> new")
+  public static @NotNull CommandAuditLog open(final @NotNull Path file) throws IOException {
+    return open(file, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_BACKUPS, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Opens an audit log.
+   *
+   * @param file        the file to append records to.
+   * @param maxFileSize the size in bytes past which the file is rotated.
+   * @param maxBackups  how many rotated files to keep, {@code 0} to discard them.
+   * @param capacity    how many records may be pending to be written before new ones are dropped,
+   *                    rounded up to a power of two, at least 2.
+   * @return the audit log.
+   * @throws IOException if the file could not be opened.
+   */
+  @Contract("_, _, _, _ -> new")
+  public static @NotNull CommandAuditLog open(final @NotNull Path file, final long maxFileSize, final int maxBackups,
+                                              final int capacity) throws IOException {
+    requireNonNull(file, "file");
+    if (maxFileSize <= 0L) {
+      throw new IllegalArgumentException("maxFileSize must be positive, got " + maxFileSize);
+    }
+    if (maxBackups < 0) {
+      throw new IllegalArgumentException("maxBackups must not be negative, got " + maxBackups);
+    }
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30, got " + capacity);
+    }
+
+    final Path absolute = file.toAbsolutePath();
+    final Path parent = absolute.getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+
+    final CommandAuditLog auditLog = new CommandAuditLog(absolute, maxFileSize, maxBackups, capacity);
+    auditLog.writer.start();
+    return auditLog;
+  }
+
+  private final Path file;
+  private final long maxFileSize;
+  private final int maxBackups;
+  private final RingBuffer buffer;
+  private final Thread writer;
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicLong written = new AtomicLong();
+  // records being handed over, the writer waits for them once closed so none is left in the buffer
+  private final AtomicInteger recording = new AtomicInteger();
+  private volatile boolean closed = false;
+
+  // only touched by the writer thread
+  private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+  private final StringBuilder line = new StringBuilder(256);
+  private int bufferedRecords = 0;
+  private FileChannel channel;
+  private long fileSize;
+
+  private CommandAuditLog(final Path file, final long maxFileSize, final int maxBackups, final int capacity) throws IOException {
+    this.file = file;
+    this.maxFileSize = maxFileSize;
+    this.maxBackups = maxBackups;
+    this.buffer = new RingBuffer(capacity);
+    openChannel();
+
+    this.writer = new Thread(this::writeLoop, "EmmyLib Command Audit Writer (" + file.getFileName() + ')');
+    this.writer.setDaemon(true);
+  }
+
+  /**
+   * The file records are appended to.
+   *
+   * @return the file records are appended to.
+   */
+  public @NotNull Path file() {
+    return this.file;
+  }
+
+  /**
+   * How many records were written so far.
+   *
+   * @return how many records were written so far.
+   */
+  public long written() {
+    return this.written.get();
+  }
+
+  /**
+   * How many records were dropped so far, either because too many were pending to be written or
+   * because writing them failed.
+   *
+   * @return how many records were dropped so far.
+   */
+  public long dropped() {
+    return this.dropped.sum();
+  }
+
+  /**
+   * Hands a record to the writer thread, dropping it if too many records are pending.
+   */
+  void record(final String subject, final String input, final CommandResult.Type resultType, final long latencyNanos) {
+    this.recording.incrementAndGet();
+    try {
+      if (this.closed || !this.buffer.offer(new Record(System.currentTimeMillis(), subject, input, resultType, latencyNanos))) {
+        this.dropped.increment();
+      }
+    } finally {
+      this.recording.decrementAndGet();
+    }
+  }
+
+  /**
+   * Stops accepting records, writes the pending ones, and closes the file, waiting up to 5 seconds
+   * for the writer to finish.
+   */
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+
+    this.closed = true;
+    LockSupport.unpark(this.writer);
+    try {
+      this.writer.join(CLOSE_TIMEOUT_MILLIS);
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CommandAuditLog["
+           + "file=" + this.file
+           + ", written=" + written()
+           + ", dropped=" + dropped()
+           + ']';
+  }
+
+  private void writeLoop() {
+    try {
+      while (true) {
+        // read before draining, records offered before closing are still written
+        final boolean closing = this.closed;
+        if (!drain()) {
+          if (!closing) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+          } else if (this.recording.get() != 0) {
+            // a record is being offered by a thread that saw the log open
+            Thread.onSpinWait();
+          } else if (!drain()) {
+            break;
+          }
+        }
+      }
+    } finally {
+      closeChannel();
+    }
+  }
+
+  private boolean drain() {
+    Record record = this.buffer.poll();
+    if (record == null) {
+      return false;
+    }
+
+    do {
+      encode(record);
+      record = this.buffer.poll();
+    } while (record != null);
+
+    flush();
+    return true;
+  }
+
+  private void encode(final Record record) {
+    final StringBuilder line = this.line;
+    line.setLength(0);
+    line.append(Instant.ofEpochMilli(record.timestamp)).append('\t');
+    appendEscaped(line, record.subject).append('\t');
+    line.append(resultTypeName(record.resultType)).append('\t');
+    line.append(TimeUnit.NANOSECONDS.toMicros(record.latencyNanos)).append('\t');
+    appendEscaped(line, record.input).append('\n');
+
+    final byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+    // flush what fits in the current file before this record makes it rotate
+    if (bytes.length > this.writeBuffer.remaining()
+        || this.fileSize + this.writeBuffer.position() + bytes.length > this.maxFileSize) {
+      flush();
+    }
+
+    if (bytes.length > this.writeBuffer.capacity()) {
+      write(ByteBuffer.wrap(bytes), 1);
+    } else {
+      this.writeBuffer.put(bytes);
+      ++this.bufferedRecords;
+    }
+  }
+
+  private void flush() {
+    if (this.writeBuffer.position() != 0) {
+      this.writeBuffer.flip();
+      write(this.writeBuffer, this.bufferedRecords);
+      this.writeBuffer.clear();
+      this.bufferedRecords = 0;
+    }
+  }
+
+  private void write(final ByteBuffer bytes, final int records) {
+    try {
+      if (this.channel != null && this.fileSize != 0L && this.fileSize + bytes.remaining() > this.maxFileSize) {
+        rotate();
+      }
+      if (this.channel == null) {
+        openChannel();
+      }
+
+      while (bytes.hasRemaining()) {
+        this.fileSize += this.channel.write(bytes);
+      }
+      this.written.addAndGet(records);
+    } catch (final IOException exception) {
+      LOGGER.error("Could not write {} command audit records to {}", records, this.file, exception);
+      this.dropped.add(records);
+      // try again with a fresh channel on the next batch
+      closeChannel();
+    }
+  }
+
+  private void rotate() throws IOException {
+    closeChannel();
+    if (this.maxBackups == 0) {
+      Files.deleteIfExists(this.file);
+      return;
+    }
+
+    for (int backup = this.maxBackups - 1; backup > 0; --backup) {
+      final Path source = backupFile(backup);
+      if (Files.exists(source)) {
+        Files.move(source, backupFile(backup + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    Files.move(this.file, backupFile(1), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private Path backupFile(final int backup) {
+    return this.file.resolveSibling(this.file.getFileName() + "." + backup);
+  }
+
+  private void openChannel() throws IOException {
+    this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    this.fileSize = this.channel.size();
+  }
+
+  private void closeChannel() {
+    final FileChannel channel = this.channel;
+    if (channel == null) {
+      return;
+    }
+
+    this.channel = null;
+    try {
+      channel.force(false);
+      channel.close();
+    } catch (final IOException exception) {
+      LOGGER.error("Could not close command audit log {}", this.file, exception);
+    }
+  }
+
+  private static StringBuilder appendEscaped(final StringBuilder builder, final String string) {
+    for (int i = 0; i < string.length(); ++i) {
+      final char c = string.charAt(i);
+      switch (c) {
+        case '\t':
+          builder.append("\\t");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        default:
+          builder.append(c);
+      }
+    }
+    return builder;
+  }
+
+  private static String resultTypeName(final CommandResult.Type resultType) {
+    if (resultType == CommandResult.Type.GENERIC_SUCCESS) {
+      return "GENERIC_SUCCESS";
+    } else if (resultType == CommandResult.Type.GENERIC_FAILURE) {
+      return "GENERIC_FAILURE";
+    } else if (resultType == CommandResult.Type.INVALID_SYNTAX) {
+      return "INVALID_SYNTAX";
+    } else if (resultType == CommandResult.Type.TIMED_OUT) {
+      return "TIMED_OUT";
+    }
+    return resultType.wasSuccessful() ? "CUSTOM_SUCCESS" : "CUSTOM_FAILURE";
+  }
+
+  private static final class Record {
+
+    final long timestamp;
+    final String subject;
+    final String input;
+    final CommandResult.Type resultType;
+    final long latencyNanos;
+
+    Record(final long timestamp, final String subject, final String input, final CommandResult.Type resultType, final long latencyNanos) {
+      this.timestamp = timestamp;
+      this.subject = subject;
+      this.input = input;
+      this.resultType = resultType;
+      this.latencyNanos = latencyNanos;
+    }
+  }
+
+  // Bounded multi-producer queue (after Dmitry Vyukov's), polled only by the writer thread. Every
+  // slot has a sequence number telling whether it is free for the producer claiming that position
+  // or holds a record for the consumer.
+  private static final class RingBuffer {
+
+    private final int mask;
+    private final AtomicReferenceArray<Record> records;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // only touched by the writer thread
+    private long head = 0L;
+
+    RingBuffer(final int capacity) {
+      // a single slot can't tell a free slot from a full one a lap ahead
+      final int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+      this.mask = size - 1;
+      this.records = new AtomicReferenceArray<>(size);
+      this.sequences = new AtomicLongArray(size);
+      for (int i = 0; i < size; ++i) {
+        this.sequences.set(i, i);
+      }
+    }
+
+    boolean offer(final Record record) {
+      long position = this.tail.get();
+      while (true) {
+        final int index = (int) position & this.mask;
+        final long difference = this.sequences.get(index) - position;
+        if (difference == 0L) {
+          if (this.tail.compareAndSet(position, position + 1L)) {
+            this.records.lazySet(index, record);
+            this.sequences.set(index, position + 1L);
+            return true;
+          }
+          position = this.tail.get();
+        } else if (difference < 0L) {
+          // the slot still holds a record from the previous lap, full
+          return false;
+        } else {
+          position = this.tail.get();
+        }
+      }
+    }
+
+    Record poll() {
+      final long head = this.head;
+      final int index = (int) head & this.mask;
+      if (this.sequences.get(index) != head + 1L) {
+        return null;
+      }
+
+      final Record record = this.records.get(index);
+      this.records.lazySet(index, null);
+      this.sequences.set(index, head + this.mask + 1L);
+      this.head = head + 1L;
+      return record;
+    }
+  }
+}
@@ -26,23 +26,41 @@
 package io.github.emilyydev.emmylib.common.command;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.Suggestion;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import com.mojang.brigadier.tree.RootCommandNode;
 import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
+import io.github.emilyydev.emmylib.common.util.Permission;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toUnmodifiableList;
@@ -61,16 +79,19 @@ public class CommandHandler<S> implements CommandSegment.Root<S>, AutoCloseable
    */
   @Contract("-> new")
   public static <S> CommandHandler<S> immediateCommandHandler() {
-    return new CommandHandler<>(Runnable::run);
+    return new CommandHandler<>(Runnable::run, false, null);
   }
 
   /**
+   * Creates a command handler that runs commands one at a time on a thread of its own, which is
+   * shut down when the handler is closed.
+   *
    * @param <S>
    * @return
    */
   @Contract("-> new")
   public static <S> CommandHandler<S> asynchronousQueuedCommandHandler() {
-    return new CommandHandler<>(Executors.newSingleThreadExecutor());
+    return new CommandHandler<>(Executors.newSingleThreadExecutor(), true, null);
   }
 
   /**
@@ -80,18 +101,64 @@ public class CommandHandler<S> implements CommandSegment.Root<S>, AutoCloseable
    */
   @Contract("_ -> new")
   public static <S> CommandHandler<S> customExecutorCommandHandler(final @NotNull Executor executor) {
-    return new CommandHandler<>(requireNonNull(executor));
+    return new CommandHandler<>(requireNonNull(executor), false, null);
+  }
+
+  /**
+   * Creates a command handler that runs commands one at a time on a thread of its own, which is
+   * shut down when the handler is closed, keeping a separate queue per {@link Priority}.
+   * <p>
+   * Each command is queued according to the priority the classifier assigns to its subject. When
+   * several queues hold commands, they take turns in proportion to their {@linkplain Priority weight},
+   * so high priority commands (say, console and staff commands) keep a bounded latency even when
+   * the other queues are saturated, while lower priority commands are slowed down but never starved.
+   * Suggestions computed on the handler's thread use the {@link Priority#NORMAL} queue.
+   *
+   * @param classifier assigns a priority to the subject of each command.
+   * @param <S>
+   * @return
+   */
+  @Contract("_ -> new")
+  public static <S> CommandHandler<S> prioritizedCommandHandler(final @NotNull Function<? super S, @NotNull Priority> classifier) {
+    requireNonNull(classifier, "classifier");
+    return new CommandHandler<>(new PriorityLaneExecutor(), true, classifier);
   }
 
+  // how long closeGracefully waits for a command before draining the tick queue again
+  private static final long TICK_QUEUE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
   private final Executor executor;
+  private final boolean ownsExecutor;
+  private final Function<? super S, Priority> classifier;
+  private final Set<CommandTask<?>> inFlight = ConcurrentHashMap.newKeySet();
   private final AtomicBoolean closedState = new AtomicBoolean(false);
-  private final CommandDispatcher<S> dispatcher = new CommandDispatcher<>();
-  private final RootCommandNode<S> rootCommandNode = this.dispatcher.getRoot();
+  private final CopyOnWriteRootCommandNode<S> rootCommandNode = new CopyOnWriteRootCommandNode<>();
+  private final CommandDispatcher<S> dispatcher = new CommandDispatcher<>(this.rootCommandNode);
+  private final SuggestionPipeline<S> suggestionPipeline;
+  private final Map<String, Duration> timeouts = new ConcurrentHashMap<>();
+  private volatile Duration defaultTimeout = null;
+  private volatile CommandMetrics metrics = null;
+  private volatile AuditHook<S> auditHook = null;
+  private volatile PermissionProfileCache<S> permissionProfiles = null;
+  private volatile Executor syncExecutor = null;
 
-  private CommandHandler(final Executor executor) {
+  private CommandHandler(final Executor executor, final boolean ownsExecutor, final Function<? super S, Priority> classifier) {
     this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+    this.classifier = classifier;
+    this.suggestionPipeline = new SuggestionPipeline<>(this.dispatcher, this::parse, executor);
   }
 
+  /**
+   * The root of the command tree of this handler.
+   * <p>
+   * Children added to it, either directly or through {@link #addCommand(LiteralCommandNode)} and
+   * {@link #addCommands(Collection)}, are published as a new version of the tree that is swapped in
+   * atomically, so commands may be registered while others are being parsed or executed. Nodes must
+   * not be mutated once they have been added.
+   *
+   * @return the root command node of this handler.
+   */
   @Override
   public @NotNull RootCommandNode<S> commandNode() {
     return this.rootCommandNode;
@@ -116,6 +183,41 @@ public class CommandHandler<S> implements CommandSegment.Root<S>, AutoCloseable
       throw new IllegalStateException("Command handler is closed");
     }
     this.rootCommandNode.addChild(commandNode);
+    this.suggestionPipeline.invalidateAll();
+    return this;
+  }
+
+  /**
+   * Adds all the given commands at once, publishing a single new version of the command tree.
+   *
+   * @param segments
+   * @return this command handler for chaining method calls
+   */
+  @SafeVarargs
+  @Contract("_ -> this")
+  public final CommandHandler<S> addCommands(final CommandSegment.Literal<S> @NotNull ... segments) {
+    requireNonNull(segments, "segments");
+    final List<LiteralCommandNode<S>> commandNodes = new ArrayList<>(segments.length);
+    for (final CommandSegment.Literal<S> segment : segments) {
+      commandNodes.add(segment.commandNode());
+    }
+    return addCommands(commandNodes);
+  }
+
+  /**
+   * Adds all the given commands at once, publishing a single new version of the command tree.
+   *
+   * @param commandNodes
+   * @return this command handler for chaining method calls
+   */
+  @Contract("_ -> this")
+  public CommandHandler<S> addCommands(final @NotNull Collection<? extends @NotNull LiteralCommandNode<S>> commandNodes) {
+    requireNonNull(commandNodes, "commandNodes");
+    if (this.closedState.get()) {
+      throw new IllegalStateException("Command handler is closed");
+    }
+    this.rootCommandNode.addChildren(List.copyOf(commandNodes));
+    this.suggestionPipeline.invalidateAll();
     return this;
   }
 
@@ -132,25 +234,283 @@ public class CommandHandler<S> implements CommandSegment.Root<S>, AutoCloseable
       throw new IllegalStateException("Command handler is closed");
     }
 
-    final var task = new FutureTask<>(() -> {
-      final var parseResults = this.dispatcher.parse(input.trim(), subject);
+    final CommandMetrics metrics = this.metrics;
+    final AuditHook<S> auditHook = this.auditHook;
+    final long submittedAt = metrics == null && auditHook == null ? 0L : System.nanoTime();
+    final CommandTask<CommandResult> task = new CommandTask<>(this.ownsExecutor, commandTask -> {
+      final long startedAt = metrics == null ? 0L : System.nanoTime();
+      final var parseResults = parse(input.trim(), subject);
+      final long parsedAt = metrics == null ? 0L : System.nanoTime();
+      final CommandResult result = run(commandTask, parseResults, metrics, auditHook, submittedAt, startedAt, parsedAt, CommandHandler::timedOutResult);
+      final CompletableFuture<CommandResult> syncResult = commandTask.takeSyncResult();
+      if (syncResult != null) {
+        commandTask.completeLater(syncResult);
+      }
+      return result;
+    });
+    submit(task, subject);
+    return task;
+  }
+
+  /**
+   * Executes the given commands in order, as a single task on this handler's executor.
+   *
+   * @param inputs
+   * @param subject
+   * @return
+   * @see #executeBatch(List, Object, boolean)
+   */
+  public Future<@Unmodifiable List<CommandResult>> executeBatch(final @NotNull List<@NotNull String> inputs, final @NotNull S subject) {
+    return executeBatch(inputs, subject, false);
+  }
+
+  /**
+   * Executes the given commands in order, as a single task on this handler's executor.
+   * <p>
+   * The tree the commands are parsed against (pruned for the subject's permissions, if
+   * {@linkplain #cachePermissionProfiles(boolean) enabled}) is looked up once when the batch starts,
+   * and identical inputs are parsed only once per batch, so commands that change how later commands
+   * of the same batch would parse should not be batched together. Distinct inputs are otherwise
+   * parsed from scratch, as Brigadier can't resume a parse from a shared prefix. Each command is subject to its own
+   * timeout; if one times out, the future completes right away with the results of the commands
+   * that ran until then followed by a {@link CommandResult.Type#TIMED_OUT} result, and the rest of
+   * the batch is skipped. Cancelling the future cancels the whole batch.
+   * <p>
+   * Sync phases of {@link TwoPhaseCommand two-phase commands} don't hold up the rest of the batch,
+   * they are queued in order as the batch runs and the future completes once all of them ran. A
+   * failing sync phase is reported in the result of its command, but never stops the batch; if the
+   * batch times out, commands whose sync phase didn't run yet are reported with the result of their
+   * asynchronous phase.
+   *
+   * @param inputs        the commands to execute.
+   * @param subject       the subject executing the commands.
+   * @param stopOnFailure whether to skip the rest of the batch after the first command that didn't
+   *                      succeed.
+   * @return the results of the commands that were executed, in the same order as their inputs.
+   */
+  public Future<@Unmodifiable List<CommandResult>> executeBatch(final @NotNull List<@NotNull String> inputs, final @NotNull S subject,
+                                                                final boolean stopOnFailure) {
+    final List<String> batch = List.copyOf(requireNonNull(inputs, "inputs"));
+    requireNonNull(subject, "subject");
+
+    if (this.closedState.get()) {
+      throw new IllegalStateException("Command handler is closed");
+    }
+
+    final CommandMetrics metrics = this.metrics;
+    final AuditHook<S> auditHook = this.auditHook;
+    final long submittedAt = metrics == null && auditHook == null ? 0L : System.nanoTime();
+    final CommandTask<List<CommandResult>> task =
+        new CommandTask<>(this.ownsExecutor, commandTask -> runBatch(commandTask, batch, subject, stopOnFailure, metrics, auditHook, submittedAt));
+    submit(task, subject);
+    return task;
+  }
+
+  private void submit(final CommandTask<?> task, final S subject) {
+    final Priority priority = this.classifier == null ? null : requireNonNull(this.classifier.apply(subject), "priority");
+    this.inFlight.add(task);
+    task.whenComplete((result, throwable) -> this.inFlight.remove(task));
+    // closeGracefully might have missed this task if it got closed after the first check
+    if (this.closedState.get()) {
+      task.cancelIfQueued();
+      throw new IllegalStateException("Command handler is closed");
+    }
 
-      if (!parseResults.getExceptions().isEmpty()) {
-        return CommandResult.Type.INVALID_SYNTAX.createResult(ComponentMessage.empty(), parseResults.getExceptions().values());
+    try {
+      if (priority == null) {
+        this.executor.execute(task);
+      } else {
+        ((PriorityLaneExecutor) this.executor).execute(task, priority);
       }
+    } catch (final RejectedExecutionException exception) {
+      task.cancelIfQueued();
+      throw exception;
+    }
+  }
 
-      try {
-        this.dispatcher.execute(parseResults);
-        return CommandResult.Type.GENERIC_SUCCESS.createResult(ComponentMessage.empty(), List.of());
-      } catch (final CustomCommandException exception) {
-        return exception.getResultType().createResult(exception.getCommandMessage(), List.of());
-      } catch (final CommandSyntaxException exception) {
-        return CommandResult.Type.GENERIC_FAILURE.createResult(exception.getRawMessage(), List.of(exception));
+  private List<CommandResult> runBatch(final CommandTask<List<CommandResult>> task, final List<String> inputs, final S subject,
+                                       final boolean stopOnFailure, final CommandMetrics metrics, final AuditHook<S> auditHook,
+                                       final long submittedAt) {
+    // read by the watchdog when a command times out
+    final List<CommandResult> results = new ArrayList<>(inputs.size());
+    final Supplier<List<CommandResult>> timedOutResult = () -> {
+      synchronized (results) {
+        final List<CommandResult> partialResults = new ArrayList<>(results);
+        partialResults.add(timedOutResult());
+        return List.copyOf(partialResults);
       }
-    });
+    };
 
-    this.executor.execute(task);
-    return task;
+    final CommandDispatcher<S> dispatcher = dispatcher(subject);
+    final Map<String, ParseResults<S>> parsed = new HashMap<>();
+    List<CompletableFuture<CommandResult>> syncResults = null;
+    for (final String input : inputs) {
+      // timed out or cancelled
+      if (task.isDone() || task.timedOut()) {
+        break;
+      }
+
+      final long startedAt = metrics == null ? 0L : System.nanoTime();
+      final var parseResults = parsed.computeIfAbsent(input.trim(), trimmed -> dispatcher.parse(trimmed, subject));
+      final long parsedAt = metrics == null ? 0L : System.nanoTime();
+      final CommandResult result = run(task, parseResults, metrics, auditHook, submittedAt, startedAt, parsedAt, timedOutResult);
+      final CompletableFuture<CommandResult> syncResult = task.takeSyncResult();
+      synchronized (results) {
+        // the watchdog is about to complete the task with the results gathered so far
+        if (task.timedOut()) {
+          break;
+        }
+        if (syncResult != null) {
+          if (syncResults == null) {
+            syncResults = new ArrayList<>(inputs.size());
+          }
+          while (syncResults.size() < results.size()) {
+            syncResults.add(null);
+          }
+          syncResults.add(syncResult);
+        }
+        results.add(result);
+      }
+
+      if (stopOnFailure && result.wasFailure()) {
+        break;
+      }
+    }
+
+    synchronized (results) {
+      if (syncResults != null) {
+        final List<CompletableFuture<CommandResult>> pending = syncResults;
+        task.completeLater(CompletableFuture.allOf(pending.stream().filter(Objects::nonNull).toArray(CompletableFuture<?>[]::new))
+                                            .thenApply(ignored -> {
+                                              final List<CommandResult> finalResults = new ArrayList<>(results);
+                                              for (int i = 0; i < pending.size(); ++i) {
+                                                final CompletableFuture<CommandResult> syncResult = pending.get(i);
+                                                if (syncResult != null) {
+                                                  finalResults.set(i, syncResult.join());
+                                                }
+                                              }
+                                              return List.copyOf(finalResults);
+                                            }));
+      }
+      return List.copyOf(results);
+    }
+  }
+
+  private <R> CommandResult run(final CommandTask<R> task, final ParseResults<S> parseResults, final CommandMetrics metrics,
+                                final AuditHook<S> auditHook,
+                                final long submittedAt, final long startedAt, final long parsedAt,
+                                final Supplier<? extends R> timedOutResult) {
+    final String rootLiteral = rootLiteral(parseResults);
+
+    if (!parseResults.getExceptions().isEmpty()) {
+      final CommandResult result = CommandResult.Type.INVALID_SYNTAX.createResult(ComponentMessage.empty(), parseResults.getExceptions().values());
+      if (metrics != null) {
+        metrics.record(rootLiteral, result.getResultType(), startedAt - submittedAt, parsedAt - startedAt, -1L);
+      }
+      if (auditHook != null) {
+        auditHook.record(parseResults, result.getResultType(), System.nanoTime() - submittedAt);
+      }
+      return result;
+    }
+
+    final Duration timeout = this.timeouts.getOrDefault(rootLiteral, this.defaultTimeout);
+    if (timeout != null) {
+      task.startTimeout(timeout.toNanos(), timedOutResult);
+    } else {
+      task.stopTimeout();
+    }
+    for (var context = parseResults.getContext(); context != null; context = context.getChild()) {
+      // parse results shared by identical commands of a batch already hold them
+      if (context.getArguments().get(CommandTask.ARGUMENT_NAME) != task.taskArgument()) {
+        context.withArgument(CancellationToken.ARGUMENT_NAME, task.tokenArgument());
+        context.withArgument(CommandTask.ARGUMENT_NAME, task.taskArgument());
+      }
+    }
+
+    CommandResult result;
+    try {
+      this.dispatcher.execute(parseResults);
+      result = CommandResult.Type.GENERIC_SUCCESS.createResult(ComponentMessage.empty(), List.of());
+    } catch (final CustomCommandException exception) {
+      result = exception.getResultType().createResult(exception.getCommandMessage(), List.of());
+    } catch (final CommandSyntaxException exception) {
+      result = CommandResult.Type.GENERIC_FAILURE.createResult(exception.getRawMessage(), List.of(exception));
+    }
+
+    final List<CommandTask.DeferredPhase> syncPhases = task.takeSyncPhases();
+    // sync phases only run if the asynchronous phase went through and someone is still waiting for it
+    if (syncPhases != null && result.wasSuccessful() && !task.isDone() && !task.timedOut()) {
+      final Executor syncExecutor = this.syncExecutor;
+      if (syncExecutor == null) {
+        result = runSyncPhases(syncPhases);
+      } else {
+        final CompletableFuture<CommandResult> syncResult = new CompletableFuture<>();
+        try {
+          syncExecutor.execute(() -> {
+            if (task.isDone()) {
+              syncResult.cancel(false);
+              return;
+            }
+            try {
+              syncResult.complete(runSyncPhases(syncPhases));
+            } catch (final Throwable throwable) {
+              syncResult.completeExceptionally(throwable);
+            }
+          });
+        } catch (final RejectedExecutionException exception) {
+          syncResult.completeExceptionally(exception);
+        }
+
+        if (metrics != null || auditHook != null) {
+          syncResult.thenAccept(syncPhaseResult -> record(parseResults, rootLiteral, syncPhaseResult.getResultType(), metrics, auditHook,
+                                                          submittedAt, startedAt, parsedAt));
+        }
+        task.syncResult(syncResult);
+        return result;
+      }
+    }
+
+    if (metrics != null || auditHook != null) {
+      record(parseResults, rootLiteral, task.timedOut() ? CommandResult.Type.TIMED_OUT : result.getResultType(), metrics, auditHook,
+             submittedAt, startedAt, parsedAt);
+    }
+    return result;
+  }
+
+  private void record(final ParseResults<S> parseResults, final String rootLiteral, final CommandResult.Type resultType,
+                      final CommandMetrics metrics, final AuditHook<S> auditHook,
+                      final long submittedAt, final long startedAt, final long parsedAt) {
+    final long finishedAt = System.nanoTime();
+    if (metrics != null) {
+      metrics.record(rootLiteral, resultType, startedAt - submittedAt, parsedAt - startedAt, finishedAt - parsedAt);
+    }
+    if (auditHook != null) {
+      auditHook.record(parseResults, resultType, finishedAt - submittedAt);
+    }
+  }
+
+  private static CommandResult runSyncPhases(final List<CommandTask.DeferredPhase> syncPhases) {
+    try {
+      for (final CommandTask.DeferredPhase syncPhase : syncPhases) {
+        syncPhase.run();
+      }
+      return CommandResult.Type.GENERIC_SUCCESS.createResult(ComponentMessage.empty(), List.of());
+    } catch (final CustomCommandException exception) {
+      return exception.getResultType().createResult(exception.getCommandMessage(), List.of());
+    } catch (final CommandSyntaxException exception) {
+      return CommandResult.Type.GENERIC_FAILURE.createResult(exception.getRawMessage(), List.of(exception));
+    }
+  }
+
+  private ParseResults<S> parse(final String input, final S subject) {
+    final PermissionProfileCache<S> permissionProfiles = this.permissionProfiles;
+    return permissionProfiles == null ? this.dispatcher.parse(input, subject) : permissionProfiles.parse(input, subject);
+  }
+
+  // the dispatcher parsing the commands of the subject, looked up once for a whole batch
+  private CommandDispatcher<S> dispatcher(final S subject) {
+    final PermissionProfileCache<S> permissionProfiles = this.permissionProfiles;
+    return permissionProfiles == null ? this.dispatcher : permissionProfiles.dispatcher(subject);
   }
 
   /**
@@ -159,11 +519,48 @@ public class CommandHandler<S> implements CommandSegment.Root<S>, AutoCloseable
    * @return
    */
   public CompletableFuture<Suggestions> suggestionsFuture(final @NotNull String input, final @NotNull S subject) {
-    final var parseResults = this.dispatcher.parse(requireNonNull(input, "input"), requireNonNull(subject, "subject"));
+    final var parseResults = parse(requireNonNull(input, "input"), requireNonNull(subject, "subject"));
     if (this.closedState.get()) {
       throw new IllegalStateException("Command handler is closed");
     }
-    return this.dispatcher.getCompletionSuggestions(parseResults);
+    return CopyOnWriteRootCommandNode.completionSuggestions(this.dispatcher, parseResults);
+  }
+
+  /**
+   * Computes the suggestions for the given input on this handler's executor, without blocking the
+   * calling thread.
+   * <p>
+   * Results are cached per subject and input for a short period of time, and the parse of the
+   * previous input of the same subject is reused while only its last argument is being typed.
+   * Requests superseded by a newer request of the same subject before they get to run are dropped,
+   * and their futures are cancelled.
+   *
+   * @param input
+   * @param subject
+   * @return
+   */
+  public CompletableFuture<Suggestions> suggestionsAsync(final @NotNull String input, final @NotNull S subject) {
+    requireNonNull(input, "input");
+    requireNonNull(subject, "subject");
+
+    if (this.closedState.get()) {
+      throw new IllegalStateException("Command handler is closed");
+    }
+    return this.suggestionPipeline.suggestions(input, subject);
+  }
+
+  /**
+   * Non-blocking variant of {@link #completionSuggestions(String, Object)}.
+   *
+   * @param input
+   * @param subject
+   * @return
+   * @see #suggestionsAsync(String, Object)
+   */
+  public CompletableFuture<@Unmodifiable List<String>> completionSuggestionsAsync(final @NotNull String input, final @NotNull S subject) {
+    return suggestionsAsync(input, subject).thenApply(suggestions -> suggestions.getList().stream()
+                                                                                .map(Suggestion::getText)
+                                                                                .collect(toUnmodifiableList()));
   }
 
   /**
@@ -180,23 +577,333 @@ public class CommandHandler<S> implements CommandSegment.Root<S>, AutoCloseable
                                             .collect(toUnmodifiableList());
   }
 
+  /**
+   * Sets the timeout applied to commands that don't have a timeout of their own.
+   * <p>
+   * When a command runs past its timeout, the thread running it is interrupted, its
+   * {@link CancellationToken} is cancelled, and its future completes right away with a
+   * {@link CommandResult.Type#TIMED_OUT} result. Timeouts are enforced by a single watchdog thread
+   * shared by all command handlers.
+   * <p>
+   * Only threads owned by the handler are interrupted, as {@link #immediateCommandHandler()} and
+   * {@link #customExecutorCommandHandler(Executor)} run commands on threads that may be doing
+   * anything else (interrupting a thread blocked on a channel closes it). Commands of those handlers
+   * still complete with a timed out result, but keep running until they check their
+   * {@link CancellationToken}; an immediate handler only returns the future once the command
+   * returns.
+   *
+   * @param timeout the timeout, or {@code null} for commands to run for as long as they need to.
+   * @return this command handler for chaining method calls
+   * @see #timeout(String, Duration)
+   */
+  @Contract("_ -> this")
+  public CommandHandler<S> defaultTimeout(final @Nullable Duration timeout) {
+    this.defaultTimeout = checkTimeout(timeout);
+    return this;
+  }
+
+  /**
+   * Sets the timeout of the commands under the given root literal, overriding the
+   * {@linkplain #defaultTimeout(Duration) default timeout}, which describes how commands are
+   * stopped once they time out.
+   *
+   * @param literal the root literal of the command.
+   * @param timeout the timeout, or {@code null} to use the default timeout.
+   * @return this command handler for chaining method calls
+   */
+  @Contract("_, _ -> this")
+  public CommandHandler<S> timeout(final @NotNull String literal, final @Nullable Duration timeout) {
+    requireNonNull(literal, "literal");
+    if (timeout == null) {
+      this.timeouts.remove(literal);
+    } else {
+      this.timeouts.put(literal, checkTimeout(timeout));
+    }
+    return this;
+  }
+
+  /**
+   * Enables or disables recording execution metrics for commands executed from now on.
+   * <p>
+   * Re-enabling metrics starts recording from scratch. While disabled, executing commands doesn't
+   * record any timing data at all.
+   *
+   * @param record whether to record metrics.
+   * @return this command handler for chaining method calls
+   * @see #metricsSnapshot()
+   */
+  @Contract("_ -> this")
+  public synchronized CommandHandler<S> recordMetrics(final boolean record) {
+    if (!record) {
+      this.metrics = null;
+    } else if (this.metrics == null) {
+      this.metrics = new CommandMetrics();
+    }
+    return this;
+  }
+
+  /**
+   * If this handler is recording execution metrics.
+   *
+   * @return {@code true} if metrics are being recorded.
+   */
+  public boolean isRecordingMetrics() {
+    return this.metrics != null;
+  }
+
+  /**
+   * Takes a snapshot of the execution metrics recorded so far.
+   *
+   * @return the recorded metrics, or an empty snapshot if metrics are not being recorded.
+   * @see #recordMetrics(boolean)
+   */
+  public @NotNull CommandMetrics.Snapshot metricsSnapshot() {
+    final CommandMetrics metrics = this.metrics;
+    return metrics == null ? CommandMetrics.Snapshot.EMPTY : metrics.snapshot();
+  }
+
+  /**
+   * Records every command executed from now on to the given audit log, naming subjects with
+   * {@link String#valueOf(Object)}.
+   *
+   * @param auditLog the audit log, or {@code null} to stop recording commands.
+   * @return this command handler for chaining method calls
+   * @see #auditLog(CommandAuditLog, Function)
+   */
+  @Contract("_ -> this")
+  public CommandHandler<S> auditLog(final @Nullable CommandAuditLog auditLog) {
+    return auditLog(auditLog, String::valueOf);
+  }
+
+  /**
+   * Records every command executed from now on to the given audit log.
+   * <p>
+   * Records are taken right after each command finishes, on the thread that ran it, and written
+   * asynchronously. The recorded latency spans from the command being submitted to it finishing.
+   * The audit log is not closed by this handler.
+   *
+   * @param auditLog    the audit log, or {@code null} to stop recording commands.
+   * @param subjectName names the subjects in the records.
+   * @return this command handler for chaining method calls
+   */
+  @Contract("_, _ -> this")
+  public CommandHandler<S> auditLog(final @Nullable CommandAuditLog auditLog, final @NotNull Function<? super S, String> subjectName) {
+    requireNonNull(subjectName, "subjectName");
+    this.auditHook = auditLog == null ? null : new AuditHook<>(auditLog, subjectName);
+    return this;
+  }
+
+  /**
+   * Sets the executor the synchronous phase of {@link TwoPhaseCommand two-phase commands} runs on,
+   * usually a {@link TickQueue} drained by the main thread once per tick.
+   * <p>
+   * The future of a two-phase command completes once its synchronous phase ran, with its outcome.
+   * Timeouts only apply to the asynchronous phase. Sync phases of commands that were cancelled or
+   * timed out by the time the executor gets to them are skipped.
+   * <p>
+   * {@link #closeGracefully(Duration)} keeps draining a {@link TickQueue} while it waits, if called
+   * from the thread that drains it. Any other executor running on the thread calling it can't run
+   * sync phases until it returns, so two-phase commands waiting for them are cancelled once time
+   * runs out.
+   *
+   * @param syncExecutor the executor, or {@code null} to run synchronous phases right after the
+   *                     asynchronous phase, on the same thread.
+   * @return this command handler for chaining method calls
+   */
+  @Contract("_ -> this")
+  public CommandHandler<S> syncExecutor(final @Nullable Executor syncExecutor) {
+    this.syncExecutor = syncExecutor;
+    return this;
+  }
+
+  /**
+   * Enables or disables parsing commands against a copy of the command tree pruned for the
+   * permissions of each subject.
+   * <p>
+   * Only applies to subjects that are {@link Permissible}, and only node requirements that are a
+   * {@link Permission} {@linkplain Permission#isPermissionOnly() only checking permissions} (see
+   * {@link Permission#requirement()}) are evaluated ahead of time. The permissions of each subject
+   * are looked up once and cached by identity, so permission changes must be notified through
+   * {@link #invalidatePermissions(Object)} or {@link #invalidatePermissions()}. Pruned trees are
+   * shared between subjects granted the same permissions out of the ones checked by the tree, and
+   * are rebuilt when commands are added.
+   *
+   * @param cache whether to cache pruned command trees.
+   * @return this command handler for chaining method calls
+   */
+  @Contract("_ -> this")
+  public synchronized CommandHandler<S> cachePermissionProfiles(final boolean cache) {
+    if (!cache) {
+      this.permissionProfiles = null;
+    } else if (this.permissionProfiles == null) {
+      this.permissionProfiles = new PermissionProfileCache<>(this.rootCommandNode, this.dispatcher);
+    }
+    this.suggestionPipeline.invalidateAll();
+    return this;
+  }
+
+  /**
+   * Notifies that the permissions of the given subject changed, when
+   * {@linkplain #cachePermissionProfiles(boolean) caching permission profiles}.
+   *
+   * @param subject the subject whose permissions changed.
+   * @return this command handler for chaining method calls
+   */
+  @Contract("_ -> this")
+  public CommandHandler<S> invalidatePermissions(final @NotNull S subject) {
+    requireNonNull(subject, "subject");
+    final PermissionProfileCache<S> permissionProfiles = this.permissionProfiles;
+    if (permissionProfiles != null) {
+      permissionProfiles.invalidate(subject);
+      this.suggestionPipeline.invalidateAll();
+    }
+    return this;
+  }
+
+  /**
+   * Notifies that the permissions of any subject might have changed, when
+   * {@linkplain #cachePermissionProfiles(boolean) caching permission profiles}.
+   *
+   * @return this command handler for chaining method calls
+   */
+  @Contract("-> this")
+  public CommandHandler<S> invalidatePermissions() {
+    final PermissionProfileCache<S> permissionProfiles = this.permissionProfiles;
+    if (permissionProfiles != null) {
+      permissionProfiles.invalidateAll();
+      this.suggestionPipeline.invalidateAll();
+    }
+    return this;
+  }
+
   /**
    * Closes the command handler and stops accepting incoming command and suggestion completion
    * requests.
    * <p>
    * Whether possibly queued commands will run or not depends on the executor used.
    * <p>
-   * If the executor used is an {@link java.util.concurrent.ExecutorService}, it will <b>not</b> be
-   * shut down and awaited.
+   * If the executor was created by this handler (see {@link #asynchronousQueuedCommandHandler()} and
+   * {@link #prioritizedCommandHandler(Function)}) it is shut down, letting queued commands run, but
+   * not awaited. Custom executors are neither shut down nor awaited. Use {@link #closeGracefully(Duration, ShutdownPolicy)} to wait for in-flight
+   * commands to finish.
    * <p>
    * Any calls to {@link #addCommand(Literal)}, {@link #addCommand(LiteralCommandNode)},
-   * {@link #execute(String, Object)}, {@link #suggestionsFuture(String, Object)} and
-   * {@link #completionSuggestions(String, Object)} will result in an {@link IllegalStateException}
-   * being thrown.
+   * {@link #addCommands(Literal[])}, {@link #addCommands(Collection)},
+   * {@link #execute(String, Object)}, {@link #executeBatch(List, Object, boolean)},
+   * {@link #suggestionsFuture(String, Object)},
+   * {@link #suggestionsAsync(String, Object)}, {@link #completionSuggestions(String, Object)} and
+   * {@link #completionSuggestionsAsync(String, Object)} will result in an
+   * {@link IllegalStateException} being thrown.
    */
   @Override
   public void close() {
     this.closedState.set(true);
+    this.suggestionPipeline.invalidateAll();
+    if (this.ownsExecutor) {
+      ((ExecutorService) this.executor).shutdown();
+    }
+  }
+
+  /**
+   * Closes the command handler, letting queued commands run, and waits up to the given time for
+   * in-flight commands to finish.
+   *
+   * @param timeout the maximum time to wait for.
+   * @return statistics about the commands that were in-flight when the handler was closed.
+   * @throws InterruptedException if interrupted while waiting.
+   * @see #closeGracefully(Duration, ShutdownPolicy)
+   */
+  public @NotNull ShutdownReport closeGracefully(final @NotNull Duration timeout) throws InterruptedException {
+    return closeGracefully(timeout, ShutdownPolicy.DRAIN_QUEUED);
+  }
+
+  /**
+   * Closes the command handler and waits up to the given time for in-flight commands to finish.
+   * <p>
+   * The handler stops accepting requests right away, exactly as if {@link #close()} was called.
+   * Commands that were queued but didn't start running yet either run or are cancelled depending on
+   * the given policy. Commands still running once the given time elapses are cancelled and their
+   * threads interrupted, if the handler owns them (see {@link #defaultTimeout(Duration)}).
+   * <p>
+   * If the executor was created by this handler, it is shut down and awaited within the same time
+   * frame. If called from the thread that drains the {@link TickQueue} set as
+   * {@linkplain #syncExecutor(Executor) sync executor}, the queue is drained while waiting so sync
+   * phases of two-phase commands can still run.
+   *
+   * @param timeout the maximum time to wait for.
+   * @param policy  what to do with queued commands.
+   * @return statistics about the commands that were in-flight when the handler was closed.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public @NotNull ShutdownReport closeGracefully(final @NotNull Duration timeout, final @NotNull ShutdownPolicy policy) throws InterruptedException {
+    requireNonNull(timeout, "timeout");
+    requireNonNull(policy, "policy");
+    final long deadline = System.nanoTime() + timeout.toNanos();
+
+    this.closedState.set(true);
+    this.suggestionPipeline.invalidateAll();
+
+    final List<CommandTask<?>> pending = List.copyOf(this.inFlight);
+    int cancelledQueued = 0;
+    if (policy == ShutdownPolicy.CANCEL_QUEUED) {
+      for (final CommandTask<?> task : pending) {
+        if (task.cancelIfQueued()) {
+          ++cancelledQueued;
+        }
+      }
+    }
+
+    if (this.ownsExecutor) {
+      ((ExecutorService) this.executor).shutdown();
+    }
+
+    // waiting on the thread that runs sync phases would wait for them until time runs out
+    final Executor syncExecutor = this.syncExecutor;
+    final TickQueue tickQueue = syncExecutor instanceof TickQueue && ((TickQueue) syncExecutor).isDrainedBy(Thread.currentThread())
+                                ? (TickQueue) syncExecutor
+                                : null;
+    for (final CommandTask<?> task : pending) {
+      while (!task.isDone()) {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0L) {
+          break;
+        }
+
+        if (tickQueue != null && tickQueue.drain() != 0) {
+          continue;
+        }
+        try {
+          task.get(tickQueue == null ? remaining : Math.min(remaining, TICK_QUEUE_POLL_NANOS), TimeUnit.NANOSECONDS);
+        } catch (final ExecutionException | CancellationException | TimeoutException ignored) {
+          // we only care about it being done
+        }
+      }
+    }
+
+    int completed = 0;
+    int interrupted = 0;
+    for (final CommandTask<?> task : pending) {
+      if (task.isDone()) {
+        if (!task.isCancelled()) {
+          ++completed;
+        }
+      } else if (task.cancelIfQueued()) {
+        ++cancelledQueued;
+      } else if (task.cancel(true)) {
+        ++interrupted;
+      }
+    }
+
+    boolean terminated = interrupted == 0;
+    if (this.ownsExecutor) {
+      final ExecutorService executorService = (ExecutorService) this.executor;
+      if (interrupted != 0) {
+        executorService.shutdownNow();
+      }
+      terminated &= executorService.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    return new ShutdownReport(completed, cancelledQueued, interrupted, terminated);
   }
 
   /**
@@ -207,4 +914,155 @@ public class CommandHandler<S> implements CommandSegment.Root<S>, AutoCloseable
   public boolean isClosed() {
     return this.closedState.get();
   }
+
+  /**
+   * The priority of a command run by a {@linkplain #prioritizedCommandHandler(Function) prioritized}
+   * command handler.
+   */
+  public enum Priority {
+
+    /**
+     * Console and staff commands that must keep running under load. Gets 16 turns for every
+     * {@link #NORMAL} turn.
+     */
+    HIGH(64),
+
+    /**
+     * Regular commands.
+     */
+    NORMAL(4),
+
+    /**
+     * Commands that can wait, such as bulk or automated ones. Gets a turn for every 4
+     * {@link #NORMAL} turns.
+     */
+    LOW(1);
+
+    private final int weight;
+
+    Priority(final int weight) {
+      this.weight = weight;
+    }
+
+    /**
+     * How many commands of this priority run for each command of weight {@code 1} while both are
+     * queued.
+     *
+     * @return the weight of this priority.
+     */
+    public int weight() {
+      return this.weight;
+    }
+  }
+
+  /**
+   * What to do with commands that were queued but didn't start running when a handler is
+   * {@linkplain #closeGracefully(Duration, ShutdownPolicy) closed gracefully}.
+   */
+  public enum ShutdownPolicy {
+
+    /**
+     * Queued commands are run and awaited.
+     */
+    DRAIN_QUEUED,
+
+    /**
+     * Queued commands are cancelled and never run.
+     */
+    CANCEL_QUEUED
+  }
+
+  /**
+   * Statistics about the commands that were in-flight when a handler was
+   * {@linkplain #closeGracefully(Duration, ShutdownPolicy) closed gracefully}.
+   */
+  public static final class ShutdownReport {
+
+    private final int completed;
+    private final int cancelledQueued;
+    private final int interrupted;
+    private final boolean terminated;
+
+    private ShutdownReport(final int completed, final int cancelledQueued, final int interrupted, final boolean terminated) {
+      this.completed = completed;
+      this.cancelledQueued = cancelledQueued;
+      this.interrupted = interrupted;
+      this.terminated = terminated;
+    }
+
+    /**
+     * @return how many commands finished running, successfully or not.
+     */
+    public int completed() {
+      return this.completed;
+    }
+
+    /**
+     * @return how many queued commands were dropped without running, either because of the policy
+     *     or because time ran out before they got to run.
+     */
+    public int cancelledQueued() {
+      return this.cancelledQueued;
+    }
+
+    /**
+     * @return how many commands were still running when time ran out and got cancelled.
+     */
+    public int interrupted() {
+      return this.interrupted;
+    }
+
+    /**
+     * @return {@code true} if every command finished and the executor owned by the handler (if any)
+     *     terminated in time.
+     */
+    public boolean terminated() {
+      return this.terminated;
+    }
+
+    @Override
+    public String toString() {
+      return "ShutdownReport["
+             + "completed=" + this.completed
+             + ", cancelledQueued=" + this.cancelledQueued
+             + ", interrupted=" + this.interrupted
+             + ", terminated=" + this.terminated
+             + ']';
+    }
+  }
+
+  private static final class AuditHook<S> {
+
+    private final CommandAuditLog auditLog;
+    private final Function<? super S, String> subjectName;
+
+    AuditHook(final CommandAuditLog auditLog, final Function<? super S, String> subjectName) {
+      this.auditLog = auditLog;
+      this.subjectName = subjectName;
+    }
+
+    void record(final ParseResults<S> parseResults, final CommandResult.Type resultType, final long latencyNanos) {
+      final String subject = String.valueOf(this.subjectName.apply(parseResults.getContext().getSource()));
+      this.auditLog.record(subject, parseResults.getReader().getString(), resultType, latencyNanos);
+    }
+  }
+
+  private static Duration checkTimeout(final Duration timeout) {
+    if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+      throw new IllegalArgumentException("Timeout must be positive, got " + timeout);
+    }
+    return timeout;
+  }
+
+  private static CommandResult timedOutResult() {
+    return CommandResult.Type.TIMED_OUT.createResult(ComponentMessage.empty(), List.of());
+  }
+
+  private static String rootLiteral(final ParseResults<?> parseResults) {
+    final var nodes = parseResults.getContext().getNodes();
+    if (!nodes.isEmpty() && nodes.get(0).getNode() instanceof LiteralCommandNode) {
+      return nodes.get(0).getNode().getName();
+    }
+    return CommandMetrics.UNKNOWN_LITERAL;
+  }
 }
@@ -0,0 +1,189 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Execution metrics recorded by a {@link CommandHandler}, grouped by the root literal of the
+ * executed commands.
+ * <p>
+ * Commands whose input didn't match any root literal are grouped under
+ * {@link #UNKNOWN_LITERAL}.
+ *
+ * @see CommandHandler#recordMetrics(boolean)
+ * @see CommandHandler#metricsSnapshot()
+ */
+public final class CommandMetrics {
+
+  public static final String UNKNOWN_LITERAL = "";
+
+  private final ConcurrentMap<String, LiteralMetrics> literals = new ConcurrentHashMap<>();
+
+  CommandMetrics() { }
+
+  /**
+   * @param literal        the root literal of the command
+   * @param resultType     the type of the result of the command
+   * @param queueWaitNanos time since the command was submitted until it started running
+   * @param parseNanos     time spent parsing the command
+   * @param executionNanos time spent executing the command, or a negative value if it never got to
+   *                       be executed
+   */
+  void record(final String literal, final CommandResult.Type resultType,
+              final long queueWaitNanos, final long parseNanos, final long executionNanos) {
+    final LiteralMetrics metrics = this.literals.computeIfAbsent(literal, key -> new LiteralMetrics());
+    metrics.queueWait.record(queueWaitNanos);
+    metrics.parse.record(parseNanos);
+    if (executionNanos >= 0L) {
+      metrics.execution.record(executionNanos);
+    }
+    metrics.resultCounts.computeIfAbsent(resultType, key -> new LongAdder()).increment();
+  }
+
+  public @NotNull Snapshot snapshot() {
+    final Map<String, LiteralSnapshot> literals = new HashMap<>(this.literals.size());
+    this.literals.forEach((literal, metrics) -> literals.put(literal, metrics.snapshot()));
+    return new Snapshot(Map.copyOf(literals));
+  }
+
+  private static final class LiteralMetrics {
+
+    final LatencyHistogram queueWait = new LatencyHistogram();
+    final LatencyHistogram parse = new LatencyHistogram();
+    final LatencyHistogram execution = new LatencyHistogram();
+    final ConcurrentMap<CommandResult.Type, LongAdder> resultCounts = new ConcurrentHashMap<>(4);
+
+    LiteralSnapshot snapshot() {
+      final Map<CommandResult.Type, Long> resultCounts = new HashMap<>(this.resultCounts.size());
+      this.resultCounts.forEach((type, count) -> resultCounts.put(type, count.sum()));
+      return new LiteralSnapshot(this.queueWait.snapshot(), this.parse.snapshot(), this.execution.snapshot(),
+                                 Map.copyOf(resultCounts));
+    }
+  }
+
+  /**
+   * A point-in-time copy of the metrics recorded by a {@link CommandHandler}.
+   */
+  public static final class Snapshot {
+
+    static final Snapshot EMPTY = new Snapshot(Map.of());
+
+    private final Map<String, LiteralSnapshot> literals;
+
+    private Snapshot(final Map<String, LiteralSnapshot> literals) {
+      this.literals = literals;
+    }
+
+    /**
+     * @return the metrics of every root literal executed so far, keyed by the literal.
+     */
+    public @Unmodifiable @NotNull Map<String, LiteralSnapshot> literals() {
+      return this.literals;
+    }
+
+    /**
+     * @param literal the root literal of the command.
+     * @return the metrics for the given root literal, or an empty snapshot if it wasn't executed.
+     */
+    public @NotNull LiteralSnapshot literal(final @NotNull String literal) {
+      return this.literals.getOrDefault(requireNonNull(literal, "literal"), LiteralSnapshot.EMPTY);
+    }
+
+    /**
+     * @return how many commands resulted in each result type, across all root literals.
+     */
+    public @Unmodifiable @NotNull Map<CommandResult.Type, Long> resultCounts() {
+      final Map<CommandResult.Type, Long> resultCounts = new HashMap<>();
+      for (final LiteralSnapshot literal : this.literals.values()) {
+        literal.resultCounts.forEach((type, count) -> resultCounts.merge(type, count, Long::sum));
+      }
+      return Map.copyOf(resultCounts);
+    }
+  }
+
+  /**
+   * A point-in-time copy of the metrics recorded for a single root literal.
+   */
+  public static final class LiteralSnapshot {
+
+    static final LiteralSnapshot EMPTY = new LiteralSnapshot(LatencyHistogram.Snapshot.EMPTY,
+                                                             LatencyHistogram.Snapshot.EMPTY,
+                                                             LatencyHistogram.Snapshot.EMPTY,
+                                                             Map.of());
+
+    private final LatencyHistogram.Snapshot queueWait;
+    private final LatencyHistogram.Snapshot parse;
+    private final LatencyHistogram.Snapshot execution;
+    private final Map<CommandResult.Type, Long> resultCounts;
+
+    private LiteralSnapshot(final LatencyHistogram.Snapshot queueWait, final LatencyHistogram.Snapshot parse,
+                            final LatencyHistogram.Snapshot execution, final Map<CommandResult.Type, Long> resultCounts) {
+      this.queueWait = queueWait;
+      this.parse = parse;
+      this.execution = execution;
+      this.resultCounts = resultCounts;
+    }
+
+    /**
+     * @return time commands spent queued in the executor before they started running.
+     */
+    public @NotNull LatencyHistogram.Snapshot queueWait() {
+      return this.queueWait;
+    }
+
+    /**
+     * @return time spent parsing commands.
+     */
+    public @NotNull LatencyHistogram.Snapshot parse() {
+      return this.parse;
+    }
+
+    /**
+     * @return time spent executing commands, commands that failed to parse are not included.
+     */
+    public @NotNull LatencyHistogram.Snapshot execution() {
+      return this.execution;
+    }
+
+    public @Unmodifiable @NotNull Map<CommandResult.Type, Long> resultCounts() {
+      return this.resultCounts;
+    }
+
+    public long resultCount(final @NotNull CommandResult.Type resultType) {
+      return this.resultCounts.getOrDefault(requireNonNull(resultType, "resultType"), 0L);
+    }
+  }
+}
@@ -27,6 +27,7 @@ package io.github.emilyydev.emmylib.common.command;
 
 import com.mojang.brigadier.Message;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
@@ -46,7 +47,8 @@ public class CommandResult {
                         final Collection<CommandSyntaxException> exceptions) {
     this.resultType = resultType;
     this.message = message;
-    this.exceptions = List.copyOf(exceptions);
+    // no copy needed for the common case of no exceptions at all
+    this.exceptions = exceptions.isEmpty() ? List.of() : List.copyOf(exceptions);
   }
 
   public @Unmodifiable Collection<CommandSyntaxException> getExceptions() {
@@ -74,25 +76,55 @@ public class CommandResult {
     public static final Type GENERIC_SUCCESS = new Type(true);
     public static final Type GENERIC_FAILURE = new Type(false);
     public static final Type INVALID_SYNTAX = new Type(false);
+    public static final Type TIMED_OUT = new Type(false);
 
     private final boolean wasSuccessful;
+    // shared by every outcome without a message nor exceptions
+    private final CommandResult emptyResult;
+    private final CustomCommandException emptyException;
 
     public Type(final boolean wasSuccessful) {
       this.wasSuccessful = wasSuccessful;
+      this.emptyResult = new CommandResult(this, ComponentMessage.empty(), List.of());
+      this.emptyException = new CustomCommandException(ComponentMessage.empty(), this);
     }
 
     public boolean wasSuccessful() {
       return this.wasSuccessful;
     }
 
-    @Contract(value = "_, _ -> new", pure = true)
+    /**
+     * Creates a result of this type. Results with an {@linkplain ComponentMessage#empty() empty}
+     * message and no exceptions are shared rather than created anew.
+     *
+     * @param message
+     * @param exceptions
+     * @return
+     */
+    @Contract(pure = true)
     public CommandResult createResult(final @NotNull Message message, final @NotNull Collection<CommandSyntaxException> exceptions) {
-      return new CommandResult(this, requireNonNull(message, "message"), requireNonNull(exceptions, "exceptions"));
+      requireNonNull(message, "message");
+      requireNonNull(exceptions, "exceptions");
+      if (message == ComponentMessage.empty() && exceptions.isEmpty()) {
+        return this.emptyResult;
+      }
+      return new CommandResult(this, message, exceptions);
     }
 
     @Contract(value = "_ -> fail", pure = true)
     public void throwCustomException(final @NotNull Message message) throws CustomCommandException {
       throw new CustomCommandException(message, this);
     }
+
+    /**
+     * Ends the command being executed with a result of this type and an empty message, without
+     * allocating anything.
+     *
+     * @throws CustomCommandException always.
+     */
+    @Contract(value = "-> fail", pure = true)
+    public void throwCustomException() throws CustomCommandException {
+      throw this.emptyException;
+    }
   }
 }
@@ -0,0 +1,289 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.context.ParsedArgument;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The future of a command (or a batch of commands) submitted to a {@link CommandHandler}, and the
+ * task running it.
+ * <p>
+ * Unlike a plain {@link CompletableFuture}, cancelling it interrupts the thread running the command
+ * and cancels its {@link CancellationToken}, and it completes with a timed out result as soon as
+ * the timeout of the command being run (if any) elapses. Tasks that don't run on a thread owned by
+ * the handler are never interrupted, only their token is cancelled.
+ *
+ * @param <R> the type of the result of the task.
+ */
+final class CommandTask<R> extends CompletableFuture<R> implements Runnable {
+
+  /**
+   * Name of the argument holding the task running a command in its context.
+   */
+  static final String ARGUMENT_NAME = "emmylib:command-task";
+
+  private static final int NEW = 0;
+  private static final int RUNNING = 1;
+  private static final int INTERRUPTING = 2;
+  private static final int INTERRUPTED = 3;
+  private static final int COMPLETED = 4;
+
+  private final Body<R> body;
+  private final boolean interruptible;
+  private final CancellationToken token = new CancellationToken();
+  private final ParsedArgument<?, CancellationToken> tokenArgument = new ParsedArgument<>(0, 0, this.token);
+  private final ParsedArgument<?, CommandTask<?>> taskArgument = new ParsedArgument<>(0, 0, this);
+  private final AtomicInteger state = new AtomicInteger(NEW);
+  private volatile Thread runner;
+  private volatile ScheduledFuture<?> timeout;
+  // only touched by the thread running the task
+  private List<DeferredPhase> syncPhases;
+  private CompletableFuture<CommandResult> syncResult;
+  private CompletionStage<? extends R> deferredResult;
+
+  /**
+   * @param interruptible whether the thread running the task may be interrupted, only if it is owned
+   *                      by the handler.
+   * @param body          the body of the task.
+   */
+  CommandTask(final boolean interruptible, final Body<R> body) {
+    this.body = body;
+    this.interruptible = interruptible;
+  }
+
+  /**
+   * Gets the task running the command of the given context.
+   *
+   * @param context the context of the command.
+   * @return the task running the command, or {@code null} if it is not being run by a
+   *     {@link CommandHandler}.
+   */
+  static CommandTask<?> from(final CommandContext<?> context) {
+    try {
+      return context.getArgument(ARGUMENT_NAME, CommandTask.class);
+    } catch (final IllegalArgumentException exception) {
+      return null;
+    }
+  }
+
+  // injected into the context of every command run by this task, the subject type of parsed
+  // arguments is only there for type inference
+  @SuppressWarnings("unchecked")
+  <S> ParsedArgument<S, CancellationToken> tokenArgument() {
+    return (ParsedArgument<S, CancellationToken>) this.tokenArgument;
+  }
+
+  @SuppressWarnings("unchecked")
+  <S> ParsedArgument<S, CommandTask<?>> taskArgument() {
+    return (ParsedArgument<S, CommandTask<?>>) this.taskArgument;
+  }
+
+  /**
+   * Defers part of the command being run to the sync executor of the handler, see
+   * {@link TwoPhaseCommand}.
+   */
+  void deferSyncPhase(final DeferredPhase phase) {
+    if (this.syncPhases == null) {
+      // more than one when the command is forked
+      this.syncPhases = new ArrayList<>(1);
+    }
+    this.syncPhases.add(phase);
+  }
+
+  List<DeferredPhase> takeSyncPhases() {
+    final List<DeferredPhase> syncPhases = this.syncPhases;
+    this.syncPhases = null;
+    return syncPhases;
+  }
+
+  void syncResult(final CompletableFuture<CommandResult> syncResult) {
+    this.syncResult = syncResult;
+  }
+
+  CompletableFuture<CommandResult> takeSyncResult() {
+    final CompletableFuture<CommandResult> syncResult = this.syncResult;
+    this.syncResult = null;
+    return syncResult;
+  }
+
+  /**
+   * Makes the task complete with the outcome of the given stage, rather than with the result of its
+   * body, which is ignored.
+   */
+  void completeLater(final CompletionStage<? extends R> result) {
+    this.deferredResult = result;
+  }
+
+  boolean timedOut() {
+    final int state = this.state.get();
+    return (state == INTERRUPTING || state == INTERRUPTED) && !isCancelled();
+  }
+
+  /**
+   * Starts the timeout of the command about to be run, replacing the timeout of the previous one.
+   * Should only be called from the thread running the task.
+   *
+   * @param timeoutNanos   the timeout of the command, in nanoseconds.
+   * @param timedOutResult supplies the result the task completes with if the command times out.
+   */
+  void startTimeout(final long timeoutNanos, final Supplier<? extends R> timedOutResult) {
+    stopTimeout();
+    this.timeout = CommandWatchdog.schedule(() -> {
+      if (interrupt()) {
+        complete(timedOutResult.get());
+      }
+    }, timeoutNanos);
+  }
+
+  /**
+   * Stops the timeout of the command that was last run, if any. Should only be called from the
+   * thread running the task.
+   */
+  void stopTimeout() {
+    final ScheduledFuture<?> timeout = this.timeout;
+    if (timeout != null) {
+      timeout.cancel(false);
+      this.timeout = null;
+    }
+  }
+
+  @Override
+  public void run() {
+    // cancelled before it got to run
+    if (!this.state.compareAndSet(NEW, RUNNING)) {
+      return;
+    }
+
+    this.runner = Thread.currentThread();
+    R result = null;
+    Throwable failure = null;
+    // don't start the body if the task was cancelled before the runner was published, the interrupt
+    // may have missed this thread
+    if (this.state.get() == RUNNING) {
+      try {
+        result = this.body.run(this);
+      } catch (final Throwable throwable) {
+        failure = throwable;
+      } finally {
+        stopTimeout();
+      }
+    }
+
+    if (this.state.compareAndSet(RUNNING, COMPLETED)) {
+      final CompletionStage<? extends R> deferredResult = this.deferredResult;
+      if (failure == null && deferredResult != null) {
+        deferredResult.whenComplete((value, throwable) -> {
+          if (throwable == null) {
+            complete(value);
+          } else {
+            completeExceptionally(throwable);
+          }
+        });
+      } else if (failure == null) {
+        complete(result);
+      } else {
+        completeExceptionally(failure);
+      }
+    } else {
+      // the command was interrupted, wait for the interrupt to land and don't leak it to the executor
+      while (this.state.get() == INTERRUPTING) {
+        Thread.yield();
+      }
+      if (this.interruptible) {
+        Thread.interrupted();
+      }
+    }
+    this.runner = null;
+  }
+
+  /**
+   * Cancels the command only if it didn't start running yet.
+   *
+   * @return {@code true} if the command was cancelled and will never run.
+   */
+  boolean cancelIfQueued() {
+    if (this.state.compareAndSet(NEW, INTERRUPTED)) {
+      this.token.cancel();
+      super.cancel(false);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean cancel(final boolean mayInterruptIfRunning) {
+    final boolean cancelled = super.cancel(mayInterruptIfRunning);
+    if (cancelled) {
+      // claim the task if it didn't start running yet, so it never does
+      if (this.state.compareAndSet(NEW, INTERRUPTED)) {
+        this.token.cancel();
+      } else if (mayInterruptIfRunning) {
+        interrupt();
+      } else {
+        this.token.cancel();
+      }
+    }
+    return cancelled;
+  }
+
+  private boolean interrupt() {
+    this.token.cancel();
+    if (this.state.compareAndSet(RUNNING, INTERRUPTING)) {
+      try {
+        final Thread runner = this.runner;
+        if (runner != null && this.interruptible) {
+          runner.interrupt();
+        }
+      } finally {
+        this.state.set(INTERRUPTED);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @FunctionalInterface
+  interface DeferredPhase {
+
+    void run() throws CommandSyntaxException;
+  }
+
+  @FunctionalInterface
+  interface Body<R> {
+
+    R run(CommandTask<R> task) throws Exception;
+  }
+}
@@ -0,0 +1,57 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single scheduler thread enforcing the timeouts of every in-flight command of every
+ * {@link CommandHandler}, started the first time a command with a timeout runs.
+ */
+final class CommandWatchdog {
+
+  private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+  static {
+    SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "EmmyLib Command Watchdog");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // timeouts of commands that finish in time are cancelled, don't keep them queued until they expire
+    SCHEDULER.setRemoveOnCancelPolicy(true);
+  }
+
+  static ScheduledFuture<?> schedule(final Runnable runnable, final long timeoutNanos) {
+    return SCHEDULER.schedule(runnable, timeoutNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private CommandWatchdog() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+}
@@ -0,0 +1,370 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.mojang.brigadier.AmbiguityConsumer;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.context.CommandContextBuilder;
+import com.mojang.brigadier.context.SuggestionContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mojang.brigadier.tree.ArgumentCommandNode;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A root command node whose children are never mutated once published.
+ * <p>
+ * Brigadier keeps the children of a node in plain hash maps that are not safe to read while another
+ * thread registers a command. This node instead keeps an immutable snapshot of its children that is
+ * replaced atomically on every registration, merging colliding nodes into fresh copies rather than
+ * into the published ones, so parsing and suggestions always see a complete version of the tree
+ * without any locking.
+ * <p>
+ * The node itself keeps its identity across versions, so redirects to it keep working as usual.
+ * Brigadier merges colliding nodes in place, so nodes redirecting to them see the merged children;
+ * to keep that working, nodes of the tree redirecting to a node that gets merged (or to any of its
+ * descendants) are copied as well, redirecting to the merged node. Only nodes already in the tree
+ * are rewritten: nodes built later should redirect to the node currently in the tree, not to one
+ * that was replaced by a merge. Nodes handed to it must not be mutated after being added.
+ * <p>
+ * Every version also indexes its literal children in a {@link LiteralTrie}, which
+ * {@link #completionSuggestions(CommandDispatcher, ParseResults)} uses to complete the first word of
+ * the input without visiting every literal.
+ *
+ * @param <S> the type of the command subjects.
+ */
+final class CopyOnWriteRootCommandNode<S> extends RootCommandNode<S> {
+
+  private final Object writeLock = new Object();
+  private volatile Tree<S> tree = new Tree<>(Map.of(), Map.of(), Map.of(), LiteralTrie.empty(), 0L);
+
+  /**
+   * Incremented every time a new version of the tree is published.
+   *
+   * @return the version of the tree currently published.
+   */
+  long version() {
+    return this.tree.version;
+  }
+
+  @Override
+  public Collection<CommandNode<S>> getChildren() {
+    return this.tree.children.values();
+  }
+
+  @Override
+  public CommandNode<S> getChild(final String name) {
+    return this.tree.children.get(name);
+  }
+
+  @Override
+  public Collection<? extends CommandNode<S>> getRelevantNodes(final StringReader input) {
+    final Tree<S> tree = this.tree;
+    if (tree.literals.isEmpty()) {
+      return tree.arguments.values();
+    }
+
+    final String string = input.getString();
+    final int start = input.getCursor();
+    final int separator = string.indexOf(' ', start);
+    final LiteralCommandNode<S> literal = tree.literals.get(string.substring(start, separator == -1 ? string.length() : separator));
+    if (literal != null) {
+      return Collections.singleton(literal);
+    }
+
+    return tree.arguments.values();
+  }
+
+  @Override
+  public void addChild(final CommandNode<S> node) {
+    addChildren(List.of(node));
+  }
+
+  /**
+   * Publishes a new version of the tree with all the given nodes added at once.
+   *
+   * @param nodes the nodes to add.
+   */
+  void addChildren(final Collection<? extends CommandNode<S>> nodes) {
+    for (final CommandNode<S> node : nodes) {
+      if (node instanceof RootCommandNode) {
+        throw new UnsupportedOperationException("Cannot add a RootCommandNode as a child to any other CommandNode");
+      }
+    }
+
+    synchronized (this.writeLock) {
+      final Tree<S> current = this.tree;
+      final Map<String, CommandNode<S>> children = new LinkedHashMap<>(current.children);
+      final Map<CommandNode<S>, CommandNode<S>> replaced = new IdentityHashMap<>();
+      for (final CommandNode<S> node : nodes) {
+        children.merge(node.getName(), node, (existing, incoming) -> merge(existing, incoming, replaced));
+      }
+      if (!replaced.isEmpty()) {
+        new RedirectRewriter<>(replaced).rewrite(children);
+      }
+
+      LiteralTrie<S> trie = current.trie;
+      for (final CommandNode<S> child : children.values()) {
+        if (child instanceof LiteralCommandNode && current.children.get(child.getName()) != child) {
+          trie = trie.with((LiteralCommandNode<S>) child);
+        }
+      }
+
+      final Map<String, LiteralCommandNode<S>> literals = new LinkedHashMap<>();
+      final Map<String, ArgumentCommandNode<S, ?>> arguments = new LinkedHashMap<>();
+      for (final CommandNode<S> child : children.values()) {
+        if (child instanceof LiteralCommandNode) {
+          literals.put(child.getName(), (LiteralCommandNode<S>) child);
+        } else if (child instanceof ArgumentCommandNode) {
+          arguments.put(child.getName(), (ArgumentCommandNode<S, ?>) child);
+        }
+      }
+
+      this.tree = new Tree<>(Collections.unmodifiableMap(children),
+                             Collections.unmodifiableMap(literals),
+                             Collections.unmodifiableMap(arguments),
+                             trie, current.version + 1L);
+    }
+  }
+
+  @Override
+  public void findAmbiguities(final AmbiguityConsumer<S> consumer) {
+    // brigadier walks its own children map, hand it a detached copy of the current version to walk
+    final RootCommandNode<S> snapshot = new RootCommandNode<>();
+    for (final CommandNode<S> child : getChildren()) {
+      snapshot.addChild(child);
+    }
+    snapshot.findAmbiguities(consumer);
+  }
+
+  /**
+   * Same as {@link CommandDispatcher#getCompletionSuggestions(ParseResults)}, except the literals
+   * completing the first word of the input are looked up in the index of the root they were parsed
+   * from, if it is a copy-on-write root.
+   *
+   * @param dispatcher the dispatcher the input was parsed with.
+   * @param parse      the result of parsing the input.
+   * @param <S>        the type of the command subjects.
+   * @return the suggestions for the input.
+   */
+  static <S> CompletableFuture<Suggestions> completionSuggestions(final CommandDispatcher<S> dispatcher, final ParseResults<S> parse) {
+    final int cursor = parse.getReader().getTotalLength();
+    final CommandContextBuilder<S> context = parse.getContext();
+    final SuggestionContext<S> nodeBeforeCursor = context.findSuggestionContext(cursor);
+    if (!(nodeBeforeCursor.parent instanceof CopyOnWriteRootCommandNode)) {
+      return dispatcher.getCompletionSuggestions(parse, cursor);
+    }
+
+    final Tree<S> tree = ((CopyOnWriteRootCommandNode<S>) nodeBeforeCursor.parent).tree;
+    final String input = parse.getReader().getString();
+    final int start = Math.min(nodeBeforeCursor.startPos, cursor);
+    final SuggestionsBuilder literalsBuilder = new SuggestionsBuilder(input, start);
+    tree.trie.forEachWithPrefix(literalsBuilder.getRemaining().toLowerCase(Locale.ROOT),
+                                literal -> literalsBuilder.suggest(literal.getLiteral()));
+    if (tree.arguments.isEmpty()) {
+      return literalsBuilder.buildFuture();
+    }
+
+    // arguments can't be indexed, ask them like brigadier does
+    final CommandContext<S> builtContext = context.build(input);
+    final List<CompletableFuture<Suggestions>> futures = new ArrayList<>(tree.arguments.size() + 1);
+    futures.add(literalsBuilder.buildFuture());
+    for (final ArgumentCommandNode<S, ?> argument : tree.arguments.values()) {
+      try {
+        futures.add(argument.listSuggestions(builtContext, new SuggestionsBuilder(input, start)));
+      } catch (final CommandSyntaxException ignored) {
+        // no suggestions from this argument
+      }
+    }
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+      final List<Suggestions> suggestions = new ArrayList<>(futures.size());
+      for (final CompletableFuture<Suggestions> future : futures) {
+        suggestions.add(future.join());
+      }
+      return Suggestions.merge(input, suggestions);
+    });
+  }
+
+  // Same semantics as CommandNode#addChild, except the result is a fresh node and neither of the
+  // merged nodes (nor any of their descendants) is mutated. Both merged nodes are mapped to the
+  // result in the replaced nodes.
+  private static <S> CommandNode<S> merge(final CommandNode<S> existing, final CommandNode<S> incoming,
+                                          final Map<CommandNode<S>, CommandNode<S>> replaced) {
+    final ArgumentBuilder<S, ?> builder = existing.createBuilder();
+    if (incoming.getCommand() != null) {
+      builder.executes(incoming.getCommand());
+    }
+
+    final CommandNode<S> merged = builder.build();
+    for (final CommandNode<S> child : existing.getChildren()) {
+      final CommandNode<S> incomingChild = incoming.getChild(child.getName());
+      merged.addChild(incomingChild == null ? child : merge(child, incomingChild, replaced));
+    }
+    for (final CommandNode<S> incomingChild : incoming.getChildren()) {
+      if (existing.getChild(incomingChild.getName()) == null) {
+        merged.addChild(incomingChild);
+      }
+    }
+
+    replaced.put(existing, merged);
+    replaced.put(incoming, merged);
+    return merged;
+  }
+
+  /**
+   * Copies the nodes of a tree that redirect to replaced nodes, directly or through any of their
+   * descendants, so they redirect to the replacements instead.
+   */
+  private static final class RedirectRewriter<S> {
+
+    private final Map<CommandNode<S>, CommandNode<S>> replaced;
+    private final Set<CommandNode<S>> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<CommandNode<S>, CommandNode<S>> copies = new IdentityHashMap<>();
+    private final Set<CommandNode<S>> copying = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    RedirectRewriter(final Map<CommandNode<S>, CommandNode<S>> replaced) {
+      this.replaced = replaced;
+    }
+
+    void rewrite(final Map<String, CommandNode<S>> children) {
+      final Set<CommandNode<S>> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (final CommandNode<S> child : children.values()) {
+        collect(child, nodes);
+      }
+
+      // a node is stale if it redirects to a replaced or stale node, or if any of its children is
+      // stale, redirects can point anywhere so iterate until nothing changes
+      boolean changed = true;
+      while (changed) {
+        changed = false;
+        for (final CommandNode<S> node : nodes) {
+          if (!this.stale.contains(node) && isStale(node)) {
+            this.stale.add(node);
+            changed = true;
+          }
+        }
+      }
+
+      if (!this.stale.isEmpty()) {
+        children.replaceAll((name, child) -> copy(child));
+      }
+    }
+
+    private static <S> void collect(final CommandNode<S> node, final Set<CommandNode<S>> nodes) {
+      if (nodes.add(node)) {
+        for (final CommandNode<S> child : node.getChildren()) {
+          collect(child, nodes);
+        }
+      }
+    }
+
+    private boolean isStale(final CommandNode<S> node) {
+      final CommandNode<S> redirect = node.getRedirect();
+      if (redirect != null && (this.replaced.containsKey(redirect) || this.stale.contains(redirect))) {
+        return true;
+      }
+      for (final CommandNode<S> child : node.getChildren()) {
+        if (this.stale.contains(child)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private CommandNode<S> copy(final CommandNode<S> node) {
+      if (!this.stale.contains(node)) {
+        return node;
+      }
+      final CommandNode<S> done = this.copies.get(node);
+      if (done != null) {
+        return done;
+      }
+
+      // the target of a redirect has to exist before the node redirecting to it
+      if (!this.copying.add(node)) {
+        throw new IllegalArgumentException("Cycle of redirects through node " + node.getName());
+      }
+      final ArgumentBuilder<S, ?> builder = node.createBuilder();
+      if (node.getRedirect() != null) {
+        builder.forward(copy(resolve(node.getRedirect())), node.getRedirectModifier(), node.isFork());
+      }
+      final CommandNode<S> copy = builder.build();
+      this.copies.put(node, copy);
+      this.copying.remove(node);
+
+      for (final CommandNode<S> child : node.getChildren()) {
+        copy.addChild(copy(child));
+      }
+      return copy;
+    }
+
+    private CommandNode<S> resolve(final CommandNode<S> node) {
+      CommandNode<S> current = node;
+      CommandNode<S> replacement;
+      while ((replacement = this.replaced.get(current)) != null) {
+        current = replacement;
+      }
+      return current;
+    }
+  }
+
+  private static final class Tree<S> {
+
+    final Map<String, CommandNode<S>> children;
+    final Map<String, LiteralCommandNode<S>> literals;
+    final Map<String, ArgumentCommandNode<S, ?>> arguments;
+    final LiteralTrie<S> trie;
+    final long version;
+
+    Tree(final Map<String, CommandNode<S>> children, final Map<String, LiteralCommandNode<S>> literals,
+         final Map<String, ArgumentCommandNode<S, ?>> arguments, final LiteralTrie<S> trie, final long version) {
+      this.children = children;
+      this.literals = literals;
+      this.arguments = arguments;
+      this.trie = trie;
+      this.version = version;
+    }
+  }
+}
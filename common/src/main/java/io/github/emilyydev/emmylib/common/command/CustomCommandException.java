@@ -30,17 +30,29 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Objects;
 
+/**
+ * Thrown to end a command early with a given result.
+ * <p>
+ * These exceptions are control flow rather than errors, so they don't capture a stack trace, don't
+ * record suppressed exceptions and only render their message when asked for it. This also makes
+ * them safe to preallocate and throw repeatedly.
+ */
 class CustomCommandException extends RuntimeException {
 
   private final Message message;
   private final CommandResult.Type resultType;
 
   CustomCommandException(final Message message, final CommandResult.Type resultType) {
-    super(message.getString());
+    super(null, null, false, false);
     this.message = Objects.requireNonNull(message, "message");
     this.resultType = resultType;
   }
 
+  @Override
+  public String getMessage() {
+    return this.message.getString();
+  }
+
   public @NotNull Message getCommandMessage() {
     return this.message;
   }
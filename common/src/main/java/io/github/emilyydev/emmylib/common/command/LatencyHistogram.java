@@ -0,0 +1,176 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram in the style of HdrHistogram.
+ * <p>
+ * Recorded values are tracked in 16 linear sub-buckets per power of two, bounding the error of any
+ * reported value to 1/16th (6.25%) of it. Values are expected to be nanoseconds, and are clamped
+ * between {@code 0} and {@code 2^45 - 1} nanoseconds (a little under ten hours).
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int MAXIMUM_EXPONENT = 44;
+  private static final long MAXIMUM_TRACKABLE_VALUE = (1L << (MAXIMUM_EXPONENT + 1)) - 1L;
+  private static final int BUCKET_COUNT = (MAXIMUM_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong maximum = new AtomicLong();
+
+  LatencyHistogram() { }
+
+  void record(final long nanos) {
+    final long value = Math.min(Math.max(nanos, 0L), MAXIMUM_TRACKABLE_VALUE);
+    this.buckets.incrementAndGet(indexOf(value));
+    this.total.add(value);
+
+    long currentMaximum;
+    while (value > (currentMaximum = this.maximum.get())) {
+      if (this.maximum.compareAndSet(currentMaximum, value)) {
+        break;
+      }
+    }
+  }
+
+  public @NotNull Snapshot snapshot() {
+    final long[] counts = new long[BUCKET_COUNT];
+    long count = 0L;
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      count += counts[i] = this.buckets.get(i);
+    }
+
+    return new Snapshot(counts, count, this.total.sum(), this.maximum.get());
+  }
+
+  static int indexOf(final long value) {
+    // values below the sub-bucket count are tracked exactly
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    final int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+    return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long highestEquivalentValue(final int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    final int shift = index / SUB_BUCKET_COUNT - 1;
+    final long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    return lowest + (1L << shift) - 1L;
+  }
+
+  /**
+   * A point-in-time copy of the values recorded by a {@link LatencyHistogram}.
+   * <p>
+   * Concurrent recordings may be reflected partially, the totals are not guaranteed to be atomic with
+   * respect to each other.
+   */
+  public static final class Snapshot {
+
+    static final Snapshot EMPTY = new Snapshot(new long[BUCKET_COUNT], 0L, 0L, 0L);
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maximumNanos;
+
+    private Snapshot(final long[] counts, final long count, final long totalNanos, final long maximumNanos) {
+      this.counts = counts;
+      this.count = count;
+      this.totalNanos = totalNanos;
+      this.maximumNanos = maximumNanos;
+    }
+
+    public long count() {
+      return this.count;
+    }
+
+    public long totalNanos() {
+      return this.totalNanos;
+    }
+
+    public long maximumNanos() {
+      return this.maximumNanos;
+    }
+
+    public double meanNanos() {
+      return this.count == 0L ? 0.0 : (double) this.totalNanos / this.count;
+    }
+
+    /**
+     * Gets the value at the given percentile, that is, the value that the given percentage of the
+     * recorded values are less than or equal to.
+     *
+     * @param percentile the percentile, between {@code 0.0} and {@code 100.0}.
+     * @return the highest value equivalent to the value at the given percentile, in nanoseconds, or
+     *     {@code 0} if no values were recorded.
+     */
+    public long percentileNanos(final double percentile) {
+      if (!(percentile >= 0.0 && percentile <= 100.0)) {
+        throw new IllegalArgumentException("Percentile must be between 0 and 100, got " + percentile);
+      }
+      if (this.count == 0L) {
+        return 0L;
+      }
+
+      final long target = Math.max(1L, (long) Math.ceil(percentile / 100.0 * this.count));
+      long seen = 0L;
+      for (int i = 0; i < this.counts.length; ++i) {
+        seen += this.counts[i];
+        if (seen >= target) {
+          return Math.min(highestEquivalentValue(i), this.maximumNanos);
+        }
+      }
+
+      return this.maximumNanos;
+    }
+
+    @Override
+    public String toString() {
+      return "LatencyHistogram.Snapshot["
+             + "count=" + this.count
+             + ", meanNanos=" + meanNanos()
+             + ", p50Nanos=" + percentileNanos(50.0)
+             + ", p99Nanos=" + percentileNanos(99.0)
+             + ", maximumNanos=" + this.maximumNanos
+             + ']';
+    }
+  }
+}
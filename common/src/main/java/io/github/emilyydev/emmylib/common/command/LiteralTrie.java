@@ -0,0 +1,196 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Immutable compressed radix trie of literal command nodes, keyed by their lower case literal.
+ * <p>
+ * Adding a literal copies only the path leading to it, so every version of the trie can be shared
+ * freely. Looking up the literals starting with a prefix costs time proportional to the length of
+ * the prefix plus the amount of literals found, regardless of the size of the trie.
+ *
+ * @param <S> the type of the command subjects.
+ */
+final class LiteralTrie<S> {
+
+  private static final LiteralTrie<?> EMPTY = new LiteralTrie<>("", new char[0], noChildren(), noLiterals());
+
+  @SuppressWarnings("unchecked")
+  static <S> LiteralTrie<S> empty() {
+    return (LiteralTrie<S>) EMPTY;
+  }
+
+  // the part of the key between the parent and this node
+  private final String label;
+  // first character of the label of each child, sorted
+  private final char[] branches;
+  private final LiteralTrie<S>[] children;
+  // literals whose key ends at this node, more than one if they only differ in case
+  private final LiteralCommandNode<S>[] literals;
+
+  private LiteralTrie(final String label, final char[] branches, final LiteralTrie<S>[] children, final LiteralCommandNode<S>[] literals) {
+    this.label = label;
+    this.branches = branches;
+    this.children = children;
+    this.literals = literals;
+  }
+
+  /**
+   * Adds a literal to a copy of this trie, replacing the literal with the same name if any.
+   *
+   * @param literal the literal to add.
+   * @return the new version of the trie.
+   */
+  LiteralTrie<S> with(final LiteralCommandNode<S> literal) {
+    return with(literal.getLiteral().toLowerCase(Locale.ROOT), 0, literal);
+  }
+
+  /**
+   * Visits every literal whose lower case form starts with the given lower case prefix.
+   *
+   * @param prefix  the lower case prefix.
+   * @param visitor visits the literals found.
+   */
+  void forEachWithPrefix(final String prefix, final Consumer<? super LiteralCommandNode<S>> visitor) {
+    LiteralTrie<S> node = this;
+    int offset = 0;
+    while (offset < prefix.length()) {
+      final int branch = Arrays.binarySearch(node.branches, prefix.charAt(offset));
+      if (branch < 0) {
+        return;
+      }
+
+      node = node.children[branch];
+      final String label = node.label;
+      final int length = Math.min(label.length(), prefix.length() - offset);
+      if (!prefix.regionMatches(offset, label, 0, length)) {
+        return;
+      }
+      offset += length;
+    }
+
+    node.forEach(visitor);
+  }
+
+  private void forEach(final Consumer<? super LiteralCommandNode<S>> visitor) {
+    for (final LiteralCommandNode<S> literal : this.literals) {
+      visitor.accept(literal);
+    }
+    for (final LiteralTrie<S> child : this.children) {
+      child.forEach(visitor);
+    }
+  }
+
+  private LiteralTrie<S> with(final String key, final int offset, final LiteralCommandNode<S> literal) {
+    if (offset == key.length()) {
+      return new LiteralTrie<>(this.label, this.branches, this.children, withLiteral(this.literals, literal));
+    }
+
+    final char first = key.charAt(offset);
+    final int branch = Arrays.binarySearch(this.branches, first);
+    if (branch < 0) {
+      final LiteralTrie<S> leaf = new LiteralTrie<>(key.substring(offset), new char[0], noChildren(), single(literal));
+      return withChild(-branch - 1, first, leaf, true);
+    }
+
+    final LiteralTrie<S> child = this.children[branch];
+    final String childLabel = child.label;
+    int common = 1;
+    while (common < childLabel.length() && offset + common < key.length() && childLabel.charAt(common) == key.charAt(offset + common)) {
+      ++common;
+    }
+
+    if (common == childLabel.length()) {
+      return withChild(branch, first, child.with(key, offset + common, literal), false);
+    }
+
+    // the key diverges from the label of the child, split it where it does
+    final LiteralTrie<S> suffix = new LiteralTrie<>(childLabel.substring(common), child.branches, child.children, child.literals);
+    LiteralTrie<S> split = new LiteralTrie<>(childLabel.substring(0, common), new char[] {suffix.label.charAt(0)},
+                                             single(suffix), noLiterals());
+    split = split.with(key, offset + common, literal);
+    return withChild(branch, first, split, false);
+  }
+
+  private LiteralTrie<S> withChild(final int index, final char branch, final LiteralTrie<S> child, final boolean insert) {
+    final char[] branches;
+    final LiteralTrie<S>[] children;
+    if (insert) {
+      branches = new char[this.branches.length + 1];
+      System.arraycopy(this.branches, 0, branches, 0, index);
+      System.arraycopy(this.branches, index, branches, index + 1, this.branches.length - index);
+      children = Arrays.copyOf(this.children, this.children.length + 1);
+      System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+    } else {
+      branches = this.branches;
+      children = this.children.clone();
+    }
+
+    branches[index] = branch;
+    children[index] = child;
+    return new LiteralTrie<>(this.label, branches, children, this.literals);
+  }
+
+  private static <S> LiteralCommandNode<S>[] withLiteral(final LiteralCommandNode<S>[] literals, final LiteralCommandNode<S> literal) {
+    for (int i = 0; i < literals.length; ++i) {
+      if (literals[i].getLiteral().equals(literal.getLiteral())) {
+        final LiteralCommandNode<S>[] replaced = literals.clone();
+        replaced[i] = literal;
+        return replaced;
+      }
+    }
+
+    final LiteralCommandNode<S>[] added = Arrays.copyOf(literals, literals.length + 1);
+    added[literals.length] = literal;
+    return added;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <S> LiteralCommandNode<S>[] single(final LiteralCommandNode<S> literal) {
+    return (LiteralCommandNode<S>[]) new LiteralCommandNode<?>[] {literal};
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <S> LiteralTrie<S>[] single(final LiteralTrie<S> child) {
+    return (LiteralTrie<S>[]) new LiteralTrie<?>[] {child};
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <S> LiteralCommandNode<S>[] noLiterals() {
+    return (LiteralCommandNode<S>[]) new LiteralCommandNode<?>[0];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <S> LiteralTrie<S>[] noChildren() {
+    return (LiteralTrie<S>[]) new LiteralTrie<?>[0];
+  }
+}
@@ -0,0 +1,255 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.tree.CommandNode;
+import io.github.emilyydev.emmylib.common.util.Permission;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Parses commands against a copy of the command tree pruned for the permissions of the subject,
+ * backing {@link CommandHandler#cachePermissionProfiles(boolean)}.
+ * <p>
+ * Every node requirement that is a {@link Permission} {@linkplain Permission#isPermissionOnly() only
+ * checking permissions} is evaluated ahead of time: nodes whose requirement doesn't pass are left out
+ * of the pruned tree, and nodes whose requirement passes don't check it again. Subjects sharing the
+ * same granted permissions out of the ones referenced by the tree (their profile) share the same
+ * pruned tree, and the profile of each subject is cached until invalidated.
+ *
+ * @param <S> the type of the command subjects.
+ */
+final class PermissionProfileCache<S> {
+
+  private static final long MAXIMUM_CACHED_PROFILES = 256L;
+  private static final Predicate<Object> ALWAYS_TRUE = subject -> true;
+
+  private final CopyOnWriteRootCommandNode<S> rootCommandNode;
+  private final CommandDispatcher<S> dispatcher;
+  private final Cache<S, SubjectProfile<S>> subjects =
+      Caffeine.newBuilder()
+              .weakKeys()
+              .build();
+  private volatile Index<S> index;
+
+  PermissionProfileCache(final CopyOnWriteRootCommandNode<S> rootCommandNode, final CommandDispatcher<S> dispatcher) {
+    this.rootCommandNode = rootCommandNode;
+    this.dispatcher = dispatcher;
+  }
+
+  ParseResults<S> parse(final String input, final S subject) {
+    return dispatcher(subject).parse(input, subject);
+  }
+
+  /**
+   * @return the dispatcher of the tree pruned for the current profile of the subject, or the
+   *     dispatcher of the whole tree if it has nothing to prune for the subject.
+   */
+  CommandDispatcher<S> dispatcher(final S subject) {
+    if (!(subject instanceof Permissible)) {
+      return this.dispatcher;
+    }
+
+    final Index<S> index = currentIndex();
+    if (index.permissions.isEmpty()) {
+      return this.dispatcher;
+    }
+
+    final BitSet granted = grantedPermissions(index, subject);
+    return index.trees.get(granted, index::prune);
+  }
+
+  void invalidate(final S subject) {
+    this.subjects.invalidate(subject);
+  }
+
+  void invalidateAll() {
+    this.subjects.invalidateAll();
+  }
+
+  private Index<S> currentIndex() {
+    // read the version before walking the tree, an index built out of a newer tree gets rebuilt
+    // once more at worst
+    final long version = this.rootCommandNode.version();
+    Index<S> index = this.index;
+    if (index == null || index.version != version) {
+      this.index = index = new Index<>(version, List.copyOf(this.rootCommandNode.getChildren()));
+    }
+    return index;
+  }
+
+  private BitSet grantedPermissions(final Index<S> index, final S subject) {
+    final SubjectProfile<S> profile = this.subjects.getIfPresent(subject);
+    if (profile != null && profile.index == index) {
+      return profile.granted;
+    }
+
+    final Permissible permissible = (Permissible) subject;
+    final BitSet granted = new BitSet(index.permissions.size());
+    for (int i = 0; i < index.permissions.size(); ++i) {
+      if (permissible.hasPermission(index.permissions.get(i))) {
+        granted.set(i);
+      }
+    }
+
+    this.subjects.put(subject, new SubjectProfile<>(index, granted));
+    return granted;
+  }
+
+  private static Permission permissionOnlyRequirement(final CommandNode<?> node) {
+    final Object requirement = node.getRequirement();
+    if (requirement instanceof Permission && ((Permission) requirement).isPermissionOnly()) {
+      return (Permission) requirement;
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <S> Predicate<S> alwaysTrue() {
+    return (Predicate<S>) ALWAYS_TRUE;
+  }
+
+  private static final class Index<S> {
+
+    final long version;
+    final List<CommandNode<S>> children;
+    final List<String> permissions;
+    final Map<String, Integer> permissionIndices = new HashMap<>();
+    // nodes with a permission-only requirement somewhere in their subtree, the rest are shared as-is
+    final Set<CommandNode<S>> prunable = Collections.newSetFromMap(new IdentityHashMap<>());
+    final Cache<BitSet, CommandDispatcher<S>> trees =
+        Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_CACHED_PROFILES)
+                .build();
+
+    Index(final long version, final List<CommandNode<S>> children) {
+      this.version = version;
+      this.children = children;
+
+      final Set<String> permissions = new LinkedHashSet<>();
+      final Set<CommandNode<S>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (final CommandNode<S> child : children) {
+        collect(child, permissions, visited);
+      }
+
+      this.permissions = List.copyOf(permissions);
+      for (int i = 0; i < this.permissions.size(); ++i) {
+        this.permissionIndices.put(this.permissions.get(i), i);
+      }
+    }
+
+    private boolean collect(final CommandNode<S> node, final Set<String> permissions, final Set<CommandNode<S>> visited) {
+      if (!visited.add(node)) {
+        return this.prunable.contains(node);
+      }
+
+      final Permission requirement = permissionOnlyRequirement(node);
+      boolean prunable = requirement != null;
+      if (prunable) {
+        permissions.addAll(requirement.referencedPermissions());
+      }
+
+      // redirect targets are not walked, they keep checking their requirements as usual
+      for (final CommandNode<S> child : node.getChildren()) {
+        prunable |= collect(child, permissions, visited);
+      }
+
+      if (prunable) {
+        this.prunable.add(node);
+      }
+      return prunable;
+    }
+
+    CommandDispatcher<S> prune(final BitSet granted) {
+      final Permissible profile = permission -> {
+        final Integer index = this.permissionIndices.get(permission);
+        return index != null && granted.get(index);
+      };
+
+      final List<CommandNode<S>> children = new ArrayList<>(this.children.size());
+      for (final CommandNode<S> child : this.children) {
+        final CommandNode<S> pruned = prune(child, profile);
+        if (pruned != null) {
+          children.add(pruned);
+        }
+      }
+
+      // also a copy-on-write root so suggestions for it use the literal index
+      final CopyOnWriteRootCommandNode<S> root = new CopyOnWriteRootCommandNode<>();
+      root.addChildren(children);
+      return new CommandDispatcher<>(root);
+    }
+
+    private CommandNode<S> prune(final CommandNode<S> node, final Permissible profile) {
+      if (!this.prunable.contains(node)) {
+        return node;
+      }
+
+      final ArgumentBuilder<S, ?> builder = node.createBuilder();
+      final Permission requirement = permissionOnlyRequirement(node);
+      if (requirement != null) {
+        if (!requirement.test(profile)) {
+          return null;
+        }
+        builder.requires(alwaysTrue());
+      }
+
+      final CommandNode<S> pruned = builder.build();
+      for (final CommandNode<S> child : node.getChildren()) {
+        final CommandNode<S> prunedChild = prune(child, profile);
+        if (prunedChild != null) {
+          pruned.addChild(prunedChild);
+        }
+      }
+      return pruned;
+    }
+  }
+
+  private static final class SubjectProfile<S> {
+
+    final Index<S> index;
+    final BitSet granted;
+
+    SubjectProfile(final Index<S> index, final BitSet granted) {
+      this.index = index;
+      this.granted = granted;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import io.github.emilyydev.emmylib.common.util.container.Vector3;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A command subject with a position, which relative ({@code ~}) and local ({@code ^}) coordinates
+ * are resolved against.
+ * <p>
+ * Rotations follow the usual Minecraft conventions: a yaw of {@code 0} faces the positive z axis and
+ * grows clockwise, and a positive pitch looks down, both in degrees.
+ */
+@FunctionalInterface
+public interface Positioned {
+
+  @NotNull Vector3 position();
+
+  default double yaw() {
+    return 0.0;
+  }
+
+  default double pitch() {
+    return 0.0;
+  }
+}
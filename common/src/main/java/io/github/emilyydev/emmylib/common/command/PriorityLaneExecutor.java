@@ -0,0 +1,209 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Single-threaded executor with a queue per {@link CommandHandler.Priority}, backing
+ * {@link CommandHandler#prioritizedCommandHandler(java.util.function.Function)}.
+ * <p>
+ * While more than one queue holds tasks, the next task is picked by smooth weighted round-robin:
+ * out of every {@code sum of weights} tasks run, each non-empty queue gets as many as its weight,
+ * evenly interleaved. Higher priority tasks thus wait behind at most a few lower priority ones no
+ * matter how long the other queues get, and lower priorities are slowed down but never starved.
+ */
+final class PriorityLaneExecutor extends AbstractExecutorService {
+
+  private static final CommandHandler.Priority[] PRIORITIES = CommandHandler.Priority.values();
+
+  private final Lane[] lanes = new Lane[PRIORITIES.length];
+  // no task is queued after shutting down, so the worker can tell when it ran the last one
+  private final Object submitLock = new Object();
+  // one permit per queued task, plus one to wake the worker up on shutdown
+  private final Semaphore queued = new Semaphore(0);
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  private final Thread worker;
+  private volatile boolean shutdown = false;
+
+  PriorityLaneExecutor() {
+    for (int i = 0; i < PRIORITIES.length; ++i) {
+      this.lanes[i] = new Lane(PRIORITIES[i].weight());
+    }
+
+    this.worker = new Thread(this::work, "EmmyLib Command Handler (prioritized)");
+    this.worker.start();
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    execute(command, CommandHandler.Priority.NORMAL);
+  }
+
+  void execute(final Runnable command, final CommandHandler.Priority priority) {
+    requireNonNull(command, "command");
+    requireNonNull(priority, "priority");
+    synchronized (this.submitLock) {
+      if (this.shutdown) {
+        throw new RejectedExecutionException("Executor is shut down");
+      }
+      this.lanes[priority.ordinal()].tasks.add(command);
+    }
+    this.queued.release();
+  }
+
+  @Override
+  public void shutdown() {
+    synchronized (this.submitLock) {
+      if (this.shutdown) {
+        return;
+      }
+      this.shutdown = true;
+    }
+    this.queued.release();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    final List<Runnable> drained = new ArrayList<>();
+    for (final Lane lane : this.lanes) {
+      Runnable task;
+      while ((task = lane.tasks.poll()) != null) {
+        drained.add(task);
+      }
+    }
+    this.worker.interrupt();
+    return drained;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return this.shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return this.terminated.getCount() == 0L;
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return this.terminated.await(timeout, unit);
+  }
+
+  private void work() {
+    try {
+      while (true) {
+        try {
+          this.queued.acquire();
+        } catch (final InterruptedException exception) {
+          // shutdownNow drains the queued tasks, anything else is a stray interrupt
+          if (this.shutdown && isEmpty()) {
+            break;
+          }
+          continue;
+        }
+
+        final Runnable task = next();
+        if (task == null) {
+          // the permit released on shutdown, stop once everything queued before it ran
+          if (this.shutdown && isEmpty()) {
+            break;
+          }
+          continue;
+        }
+
+        try {
+          task.run();
+        } catch (final Throwable throwable) {
+          // errors too, the worker is the only thread running tasks and must outlive them
+          final Thread thread = Thread.currentThread();
+          thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+        }
+        // clear stray interrupts aimed at the task that just ran
+        Thread.interrupted();
+      }
+    } finally {
+      this.terminated.countDown();
+    }
+  }
+
+  // smooth weighted round-robin among the lanes with queued tasks
+  private Runnable next() {
+    Lane selected = null;
+    int totalWeight = 0;
+    for (final Lane lane : this.lanes) {
+      if (lane.tasks.isEmpty()) {
+        continue;
+      }
+
+      lane.currentWeight += lane.weight;
+      totalWeight += lane.weight;
+      if (selected == null || lane.currentWeight > selected.currentWeight) {
+        selected = lane;
+      }
+    }
+
+    if (selected == null) {
+      return null;
+    }
+
+    selected.currentWeight -= totalWeight;
+    return selected.tasks.poll();
+  }
+
+  private boolean isEmpty() {
+    for (final Lane lane : this.lanes) {
+      if (!lane.tasks.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class Lane {
+
+    final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    final int weight;
+    // only touched by the worker
+    int currentWeight = 0;
+
+    Lane(final int weight) {
+      this.weight = weight;
+    }
+  }
+}
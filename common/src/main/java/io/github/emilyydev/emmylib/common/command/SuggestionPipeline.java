@@ -0,0 +1,169 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.context.CommandContextBuilder;
+import com.mojang.brigadier.context.ParsedCommandNode;
+import com.mojang.brigadier.suggestion.Suggestions;
+import io.github.emilyydev.emmylib.common.util.container.Pair;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+
+import static io.github.emilyydev.emmylib.common.util.container.Pair.pair;
+
+/**
+ * Asynchronous tab-completion pipeline backing {@link CommandHandler#suggestionsAsync(String, Object)}.
+ * <p>
+ * Results are cached per subject and input for a short period of time, the parse of the previous
+ * input of a subject is reused while only its last argument is being typed, and requests that were
+ * superseded by a newer request of the same subject before they got to run are dropped.
+ *
+ * @param <S> the type of the command subjects.
+ */
+final class SuggestionPipeline<S> {
+
+  private static final Duration RESULT_EXPIRY = Duration.ofSeconds(1L);
+  private static final Duration SUBJECT_EXPIRY = Duration.ofSeconds(10L);
+  private static final long MAXIMUM_CACHED_RESULTS = 4096L;
+
+  private final CommandDispatcher<S> dispatcher;
+  private final BiFunction<String, S, ParseResults<S>> parser;
+  private final Executor executor;
+  private final AsyncCache<Pair<S, String>, Suggestions> results =
+      Caffeine.newBuilder()
+              .expireAfterWrite(RESULT_EXPIRY)
+              .maximumSize(MAXIMUM_CACHED_RESULTS)
+              .buildAsync();
+  private final Cache<S, SubjectState<S>> subjects =
+      Caffeine.newBuilder()
+              .expireAfterAccess(SUBJECT_EXPIRY)
+              .build();
+
+  SuggestionPipeline(final CommandDispatcher<S> dispatcher, final BiFunction<String, S, ParseResults<S>> parser,
+                     final Executor executor) {
+    this.dispatcher = dispatcher;
+    this.parser = parser;
+    this.executor = executor;
+  }
+
+  CompletableFuture<Suggestions> suggestions(final String input, final S subject) {
+    final SubjectState<S> state = this.subjects.get(subject, key -> new SubjectState<>());
+    state.latestInput = input;
+    return this.results.get(pair(subject, input), (key, ignored) -> schedule(state, input, subject));
+  }
+
+  void invalidateAll() {
+    this.results.synchronous().invalidateAll();
+    this.subjects.invalidateAll();
+  }
+
+  private CompletableFuture<Suggestions> schedule(final SubjectState<S> state, final String input, final S subject) {
+    final CompletableFuture<Suggestions> future = new CompletableFuture<>();
+    this.executor.execute(() -> {
+      // the subject kept typing before this request got to run, nobody is waiting for it anymore
+      if (!input.equals(state.latestInput)) {
+        future.cancel(false);
+        return;
+      }
+
+      try {
+        CopyOnWriteRootCommandNode.completionSuggestions(this.dispatcher, parse(state, input, subject)).whenComplete((suggestions, throwable) -> {
+          if (throwable == null) {
+            future.complete(suggestions);
+          } else {
+            future.completeExceptionally(throwable);
+          }
+        });
+      } catch (final RuntimeException exception) {
+        future.completeExceptionally(exception);
+      }
+    });
+
+    return future;
+  }
+
+  private ParseResults<S> parse(final SubjectState<S> state, final String input, final S subject) {
+    final LastParse<S> lastParse = state.lastParse;
+    if (lastParse != null && lastParse.canBeReusedFor(input)) {
+      final ParseResults<S> parseResults = lastParse.parseResults;
+      final StringReader reader = new StringReader(input);
+      reader.setCursor(Math.min(parseResults.getReader().getCursor(), input.length()));
+      return new ParseResults<>(parseResults.getContext(), reader, parseResults.getExceptions());
+    }
+
+    final ParseResults<S> parseResults = this.parser.apply(input, subject);
+    state.lastParse = new LastParse<>(input, parseResults);
+    return parseResults;
+  }
+
+  private static final class SubjectState<S> {
+
+    volatile String latestInput;
+    volatile LastParse<S> lastParse;
+  }
+
+  private static final class LastParse<S> {
+
+    private final String input;
+    private final ParseResults<S> parseResults;
+    // index at which the argument that was being typed starts
+    private final int argumentStart;
+
+    LastParse(final String input, final ParseResults<S> parseResults) {
+      this.input = input;
+      this.parseResults = parseResults;
+
+      final CommandContextBuilder<S> context = parseResults.getContext().getLastChild();
+      final List<ParsedCommandNode<S>> nodes = context.getNodes();
+      if (nodes.isEmpty()) {
+        this.argumentStart = context.getRange().getStart();
+      } else {
+        this.argumentStart = nodes.get(nodes.size() - 1).getRange().getEnd() + 1;
+      }
+    }
+
+    // Every parsed node before the argument being typed is still valid if the input up to it didn't
+    // change and no argument separator was typed after it: the argument being typed either fails to
+    // parse, leaving the context as-is, or becomes the last node, whose parent is the same node
+    // suggestions are looked up from.
+    boolean canBeReusedFor(final String input) {
+      return this.argumentStart <= this.input.length()
+             && this.argumentStart <= input.length()
+             && input.regionMatches(0, this.input, 0, this.argumentStart)
+             && input.indexOf(' ', this.argumentStart) == -1;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An executor whose tasks run when the thread owning it drains it, meant to be drained by the main
+ * thread of a server once per tick.
+ * <p>
+ * Tasks can be queued from any thread. Rather than scheduling a task of its own on the main thread
+ * for each of them, the main thread runs a bounded batch of them in one go, so a burst of work queued
+ * from other threads is spread over several ticks instead of stalling one.
+ *
+ * <pre>{@code
+ * final TickQueue tickQueue = TickQueue.tickQueue(256);
+ * commandHandler.syncExecutor(tickQueue);
+ * scheduler.runTaskTimer(plugin, () -> tickQueue.drain(), 1L, 1L);
+ * }</pre>
+ */
+public final class TickQueue implements Executor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TickQueue.class);
+
+  /**
+   * Creates a tick queue that runs at most the given amount of tasks per drain.
+   *
+   * @param maxTasksPerDrain the maximum amount of tasks run by {@link #drain()}.
+   * @return
+   */
+  @Contract("_ -> new")
+  public static @NotNull TickQueue tickQueue(final int maxTasksPerDrain) {
+    if (maxTasksPerDrain <= 0) {
+      throw new IllegalArgumentException("maxTasksPerDrain must be positive, got " + maxTasksPerDrain);
+    }
+    return new TickQueue(maxTasksPerDrain);
+  }
+
+  private final int maxTasksPerDrain;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private volatile Thread drainingThread;
+
+  private TickQueue(final int maxTasksPerDrain) {
+    this.maxTasksPerDrain = maxTasksPerDrain;
+  }
+
+  /**
+   * Queues the given task to run on the next drain with room for it.
+   *
+   * @param task the task to run.
+   */
+  @Override
+  public void execute(final @NotNull Runnable task) {
+    this.tasks.add(requireNonNull(task, "task"));
+    this.pending.incrementAndGet();
+  }
+
+  /**
+   * Runs the queued tasks, up to the maximum amount of tasks per drain. Tasks queued while draining
+   * are left for the next drain. Exceptions thrown by tasks are logged and don't stop the drain.
+   *
+   * @return how many tasks were run.
+   */
+  public int drain() {
+    return drain(Long.MAX_VALUE);
+  }
+
+  /**
+   * Runs the queued tasks, up to the maximum amount of tasks per drain or until the given time
+   * budget is spent, whichever comes first. At least one task runs if any is queued.
+   *
+   * @param budget the time after which no more tasks are started.
+   * @return how many tasks were run.
+   * @see #drain()
+   */
+  public int drain(final @NotNull Duration budget) {
+    requireNonNull(budget, "budget");
+    return drain(budget.toNanos());
+  }
+
+  /**
+   * @return how many tasks are waiting to run.
+   */
+  public int pending() {
+    return this.pending.get();
+  }
+
+  /**
+   * @return whether the given thread is the one that drained this queue last.
+   */
+  boolean isDrainedBy(final Thread thread) {
+    return this.drainingThread == thread;
+  }
+
+  private int drain(final long budgetNanos) {
+    this.drainingThread = Thread.currentThread();
+    final int limit = Math.min(this.pending.get(), this.maxTasksPerDrain);
+    final long start = budgetNanos == Long.MAX_VALUE ? 0L : System.nanoTime();
+    int ran = 0;
+    while (ran < limit) {
+      final Runnable task = this.tasks.poll();
+      if (task == null) {
+        break;
+      }
+
+      this.pending.decrementAndGet();
+      ++ran;
+      try {
+        task.run();
+      } catch (final RuntimeException exception) {
+        LOGGER.error("Uncaught exception running tick task {}", task, exception);
+      }
+
+      if (budgetNanos != Long.MAX_VALUE && System.nanoTime() - start >= budgetNanos) {
+        break;
+      }
+    }
+    return ran;
+  }
+
+  @Override
+  public String toString() {
+    return "TickQueue[maxTasksPerDrain=" + this.maxTasksPerDrain + ", pending=" + this.pending.get() + ']';
+  }
+}
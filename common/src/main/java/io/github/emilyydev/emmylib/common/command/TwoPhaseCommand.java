@@ -0,0 +1,125 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A command split into an asynchronous phase, run on the executor of the {@link CommandHandler} like
+ * any other command, and a synchronous phase handed the value computed by the former and run on
+ * the handler's {@linkplain CommandHandler#syncExecutor(java.util.concurrent.Executor) sync executor}.
+ * <p>
+ * Meant for commands that do their heavy lifting (lookups, I/O, computations) off the main thread
+ * but have to touch state owned by it to finish, without scheduling a task of their own for each
+ * execution: sync phases queue up in the sync executor, typically a {@link TickQueue} the main thread
+ * drains once per tick. The future of the command completes once the sync phase ran.
+ *
+ * <pre>{@code
+ * literal("home").executes(twoPhase(
+ *     context -> homes.load(context.getSource().uuid()),
+ *     (context, home) -> context.getSource().teleport(home)))
+ * }</pre>
+ * <p>
+ * Outside of a handler, or if the handler has no sync executor, both phases run back to back.
+ *
+ * @param <S> the type of the command subjects.
+ * @param <T> the type of the value handed from one phase to the other.
+ */
+public final class TwoPhaseCommand<S, T> implements Command<S> {
+
+  /**
+   * @param asyncPhase the phase run on the executor of the handler.
+   * @param syncPhase  the phase run on the sync executor of the handler.
+   * @param <S>        the type of the command subjects.
+   * @param <T>        the type of the value handed from one phase to the other.
+   * @return
+   */
+  @Contract("_, _ -> new")
+  public static <S, T> @NotNull TwoPhaseCommand<S, T> twoPhase(final @NotNull AsyncPhase<S, T> asyncPhase,
+                                                              final @NotNull SyncPhase<S, ? super T> syncPhase) {
+    return new TwoPhaseCommand<>(requireNonNull(asyncPhase, "asyncPhase"), requireNonNull(syncPhase, "syncPhase"));
+  }
+
+  private final AsyncPhase<S, T> asyncPhase;
+  private final SyncPhase<S, ? super T> syncPhase;
+
+  private TwoPhaseCommand(final AsyncPhase<S, T> asyncPhase, final SyncPhase<S, ? super T> syncPhase) {
+    this.asyncPhase = asyncPhase;
+    this.syncPhase = syncPhase;
+  }
+
+  @Override
+  public int run(final CommandContext<S> context) throws CommandSyntaxException {
+    final T value = this.asyncPhase.run(context);
+    final CommandTask<?> task = CommandTask.from(context);
+    if (task == null) {
+      this.syncPhase.run(context, value);
+    } else {
+      task.deferSyncPhase(() -> this.syncPhase.run(context, value));
+    }
+    return Command.SINGLE_SUCCESS;
+  }
+
+  /**
+   * The asynchronous phase of a {@link TwoPhaseCommand}.
+   *
+   * @param <S> the type of the command subjects.
+   * @param <T> the type of the value handed to the synchronous phase.
+   */
+  @FunctionalInterface
+  public interface AsyncPhase<S, T> {
+
+    /**
+     * @param context the context of the command.
+     * @return the value handed to the synchronous phase.
+     * @throws CommandSyntaxException to fail the command, skipping the synchronous phase.
+     */
+    T run(CommandContext<S> context) throws CommandSyntaxException;
+  }
+
+  /**
+   * The synchronous phase of a {@link TwoPhaseCommand}.
+   *
+   * @param <S> the type of the command subjects.
+   * @param <T> the type of the value handed by the asynchronous phase.
+   */
+  @FunctionalInterface
+  public interface SyncPhase<S, T> {
+
+    /**
+     * @param context the context of the command.
+     * @param value   the value computed by the asynchronous phase.
+     * @throws CommandSyntaxException to fail the command.
+     */
+    void run(CommandContext<S> context, T value) throws CommandSyntaxException;
+  }
+}
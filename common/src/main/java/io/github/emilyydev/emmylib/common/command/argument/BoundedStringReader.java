@@ -0,0 +1,127 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+/**
+ * A reader that can't read past a limit, so the argument types composed by {@link RangeArgumentType}
+ * and {@link ListArgumentType} parse their part of the input in place, without copying it.
+ * <p>
+ * Every member reading or measuring the input stops at the limit: {@link #canRead(int)},
+ * {@link #peek(int)} and {@link #read()} (which throw {@link StringIndexOutOfBoundsException} past
+ * it, as they would past the end of the input), {@link #getRemaining()},
+ * {@link #getRemainingLength()} and {@link #getTotalLength()}. Only {@link #getString()} still
+ * returns the whole input, as error messages show it; argument types indexing into it must stay
+ * below {@link #getTotalLength()}, as the ones of this package do.
+ */
+final class BoundedStringReader extends StringReader {
+
+  private int limit;
+
+  BoundedStringReader(final String string) {
+    super(string);
+    this.limit = string.length();
+  }
+
+  /**
+   * @return the index of the argument separator following the cursor of the given reader, or its
+   *     total length if there is none, which is the limit of a bounded reader.
+   */
+  static int argumentEnd(final StringReader reader) {
+    final int length = reader.getTotalLength();
+    final int end = reader.getString().indexOf(' ', reader.getCursor());
+    return end == -1 || end > length ? length : end;
+  }
+
+  /**
+   * Parses exactly the given region of the input with the given argument type.
+   */
+  <T> T parse(final ArgumentType<T> type, final int start, final int limit) throws CommandSyntaxException {
+    setCursor(start);
+    this.limit = limit;
+    final T value = type.parse(this);
+    if (getCursor() != limit) {
+      throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(this);
+    }
+    return value;
+  }
+
+  /**
+   * @return {@code true} if the given region of the input is parsed by the given argument type.
+   */
+  boolean canParse(final ArgumentType<?> type, final int start, final int limit) {
+    try {
+      parse(type, start, limit);
+      return true;
+    } catch (final CommandSyntaxException | RuntimeException exception) {
+      return false;
+    }
+  }
+
+  @Override
+  public int getTotalLength() {
+    return this.limit;
+  }
+
+  @Override
+  public char peek() {
+    return peek(0);
+  }
+
+  @Override
+  public char peek(final int offset) {
+    final int index = getCursor() + offset;
+    if (index >= this.limit) {
+      throw new StringIndexOutOfBoundsException("index " + index + ", limit " + this.limit);
+    }
+    return getString().charAt(index);
+  }
+
+  @Override
+  public char read() {
+    final char c = peek();
+    skip();
+    return c;
+  }
+
+  @Override
+  public boolean canRead(final int length) {
+    return getCursor() + length <= this.limit;
+  }
+
+  @Override
+  public int getRemainingLength() {
+    return this.limit - getCursor();
+  }
+
+  @Override
+  public String getRemaining() {
+    return getString().substring(getCursor(), this.limit);
+  }
+}
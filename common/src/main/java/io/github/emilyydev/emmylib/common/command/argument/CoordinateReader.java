@@ -0,0 +1,219 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads the coordinates of a vector in place, one at a time, shared by the vector argument types
+ * ({@link Vector2ArgumentType}, {@link Vector3ArgumentType}) and the coordinates argument types
+ * ({@link Coordinates2ArgumentType}, {@link Coordinates3ArgumentType}). Failures are recorded rather than thrown, so partial input being
+ * completed doesn't build exceptions.
+ */
+final class CoordinateReader {
+
+  static final int ABSOLUTE = 0;
+  static final int RELATIVE = 1;
+  static final int LOCAL = 2;
+
+  private final StringReader reader;
+  private final boolean allowRelative;
+  private final boolean allowLocal;
+  private final int start;
+  // bitmask of the kinds of coordinates read so far
+  private int kinds = 0;
+  private int lastKind = ABSOLUTE;
+  private boolean failed = false;
+
+  CoordinateReader(final StringReader reader, final boolean allowRelative, final boolean allowLocal) {
+    this.reader = reader;
+    this.allowRelative = allowRelative;
+    this.allowLocal = allowLocal;
+    this.start = reader.getCursor();
+  }
+
+  /**
+   * Reads a coordinate, see {@link #lastKind()} for its kind.
+   *
+   * @return the value of the coordinate, or its offset if it is not absolute.
+   */
+  double read() {
+    if (this.failed) {
+      return 0.0;
+    }
+
+    int kind = ABSOLUTE;
+    if (this.reader.canRead()) {
+      final char c = this.reader.peek();
+      if (c == '~' && this.allowRelative) {
+        kind = RELATIVE;
+      } else if (c == '^' && this.allowLocal) {
+        kind = LOCAL;
+      }
+    }
+    if (kind != ABSOLUTE) {
+      this.reader.skip();
+    }
+    this.lastKind = kind;
+    this.kinds |= 1 << kind;
+
+    // a bare ~ or ^ has no offset
+    if (kind != ABSOLUTE && (!this.reader.canRead() || this.reader.peek() == ' ')) {
+      return 0.0;
+    }
+    if (!this.reader.canRead() || !StringReader.isAllowedNumber(this.reader.peek())) {
+      this.failed = true;
+      return 0.0;
+    }
+
+    try {
+      return this.reader.readDouble();
+    } catch (final CommandSyntaxException exception) {
+      this.failed = true;
+      return 0.0;
+    }
+  }
+
+  int lastKind() {
+    return this.lastKind;
+  }
+
+  boolean local() {
+    return (this.kinds & 1 << LOCAL) != 0;
+  }
+
+  /**
+   * Reads the whitespace separating two coordinates.
+   */
+  void separator() {
+    if (this.failed) {
+      return;
+    }
+
+    if (this.reader.canRead() && this.reader.peek() == ' ') {
+      this.reader.skipWhitespace();
+    } else {
+      this.failed = true;
+    }
+  }
+
+  /**
+   * Checks the vector ends where the last coordinate ends, and that local coordinates are not mixed
+   * with other coordinates.
+   *
+   * @return {@code true} if every coordinate was read successfully.
+   */
+  boolean end() {
+    if (this.reader.canRead() && this.reader.peek() != ' ') {
+      this.failed = true;
+    }
+    if (local() && this.kinds != 1 << LOCAL) {
+      this.failed = true;
+    }
+    return !this.failed;
+  }
+
+  boolean failed() {
+    return this.failed;
+  }
+
+  /**
+   * @return the input read up to the end of the current word, for error messages.
+   */
+  String attempted() {
+    final String string = this.reader.getString();
+    final int length = this.reader.getTotalLength();
+    int end = Math.max(this.reader.getCursor(), this.start);
+    while (end < length && string.charAt(end) != ' ') {
+      ++end;
+    }
+    return string.substring(this.start, end);
+  }
+
+  /**
+   * Suggests how to go on with a vector of the given amount of coordinates: a separator once a
+   * coordinate was typed, and relative or local coordinates for the ones left if allowed.
+   */
+  static CompletableFuture<Suggestions> suggest(final SuggestionsBuilder builder, final int axes,
+                                                final boolean allowRelative, final boolean allowLocal) {
+    final String remaining = builder.getRemaining();
+    final StringReader reader = new StringReader(remaining);
+    final CoordinateReader coordinates = new CoordinateReader(reader, allowRelative, allowLocal);
+    int read = 0;
+    // whether the input ends where a new coordinate would start
+    boolean separated = true;
+    while (reader.canRead()) {
+      if (read == axes) {
+        return Suggestions.empty();
+      }
+
+      coordinates.read();
+      ++read;
+      if (!reader.canRead()) {
+        separated = false;
+        break;
+      }
+      coordinates.separator();
+      if (coordinates.failed()) {
+        return Suggestions.empty();
+      }
+    }
+
+    if (coordinates.failed() || read == axes) {
+      return Suggestions.empty();
+    }
+
+    final String prefix;
+    if (separated) {
+      prefix = remaining;
+    } else {
+      prefix = remaining + ' ';
+      builder.suggest(prefix);
+    }
+
+    if (allowRelative || allowLocal) {
+      final StringBuilder suggestion = new StringBuilder(prefix);
+      final char marker = coordinates.local() || !allowRelative ? '^' : '~';
+      for (int i = read; i < axes; ++i) {
+        suggestion.append(marker);
+        builder.suggest(suggestion.toString());
+        suggestion.append(' ');
+      }
+
+      // local coordinates can only be used for every coordinate at once
+      if (read == 0 && allowRelative && allowLocal) {
+        builder.suggest(prefix + "^ ".repeat(axes - 1) + '^');
+      }
+    }
+
+    return builder.buildFuture();
+  }
+}
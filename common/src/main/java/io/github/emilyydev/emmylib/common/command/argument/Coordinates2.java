@@ -0,0 +1,96 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import io.github.emilyydev.emmylib.common.command.Positioned;
+import io.github.emilyydev.emmylib.common.util.container.Vector2;
+import io.github.emilyydev.emmylib.common.util.container.Vector3;
+import org.jetbrains.annotations.NotNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Coordinates parsed by a {@link Coordinates2ArgumentType}, resolved into a {@link Vector2} on demand.
+ * <p>
+ * Each coordinate is either absolute ({@code 12.5}) or relative to the position of the subject
+ * ({@code ~} or {@code ~-3}). Relative to a {@link Positioned} subject, they are its x and z
+ * coordinates.
+ */
+public final class Coordinates2 {
+
+  private final double x;
+  private final double y;
+  private final int xKind;
+  private final int yKind;
+  private final Vector2 absolute;
+
+  Coordinates2(final double x, final double y, final int xKind, final int yKind) {
+    this.x = x;
+    this.y = y;
+    this.xKind = xKind;
+    this.yKind = yKind;
+    this.absolute = isAbsolute() ? Vector2.at(x, y) : null;
+  }
+
+  /**
+   * @return {@code true} if every coordinate is absolute, so they resolve to the same vector for
+   *     every subject.
+   */
+  public boolean isAbsolute() {
+    return this.xKind == CoordinateReader.ABSOLUTE && this.yKind == CoordinateReader.ABSOLUTE;
+  }
+
+  /**
+   * @param subject the subject the coordinates are relative to.
+   * @return the vector the coordinates point at.
+   */
+  public @NotNull Vector2 resolve(final @NotNull Positioned subject) {
+    requireNonNull(subject, "subject");
+    if (this.absolute != null) {
+      return this.absolute;
+    }
+    final Vector3 position = subject.position();
+    return resolve(Vector2.at(position.i(), position.k()));
+  }
+
+  /**
+   * @param position the position the coordinates are relative to.
+   * @return the vector the coordinates point at.
+   */
+  public @NotNull Vector2 resolve(final @NotNull Vector2 position) {
+    requireNonNull(position, "position");
+    if (this.absolute != null) {
+      return this.absolute;
+    }
+    return Vector2.at(this.xKind == CoordinateReader.RELATIVE ? position.i() + this.x : this.x,
+                      this.yKind == CoordinateReader.RELATIVE ? position.j() + this.y : this.y);
+  }
+
+  @Override
+  public String toString() {
+    return Coordinates3.format(this.x, this.xKind) + ' ' + Coordinates3.format(this.y, this.yKind);
+  }
+}
@@ -0,0 +1,136 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import io.github.emilyydev.emmylib.common.command.Positioned;
+import io.github.emilyydev.emmylib.common.util.container.Vector3;
+import org.jetbrains.annotations.NotNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Coordinates parsed by a {@link Coordinates3ArgumentType}, resolved into a {@link Vector3} on demand.
+ * <p>
+ * Each coordinate is either absolute ({@code 12.5}), relative to the position of the subject
+ * ({@code ~} or {@code ~-3}), or local ({@code ^ ^ ^2}): left, up and forwards from the position of
+ * the subject, following its rotation. Local coordinates can't be mixed with the other kinds.
+ */
+public final class Coordinates3 {
+
+  private final double x;
+  private final double y;
+  private final double z;
+  private final int xKind;
+  private final int yKind;
+  private final int zKind;
+  private final Vector3 absolute;
+
+  Coordinates3(final double x, final double y, final double z, final int xKind, final int yKind, final int zKind) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+    this.xKind = xKind;
+    this.yKind = yKind;
+    this.zKind = zKind;
+    this.absolute = isAbsolute() ? Vector3.at(x, y, z) : null;
+  }
+
+  /**
+   * @return {@code true} if every coordinate is absolute, so they resolve to the same vector for
+   *     every subject.
+   */
+  public boolean isAbsolute() {
+    return this.xKind == CoordinateReader.ABSOLUTE && this.yKind == CoordinateReader.ABSOLUTE && this.zKind == CoordinateReader.ABSOLUTE;
+  }
+
+  /**
+   * @return {@code true} if the coordinates are local.
+   */
+  public boolean isLocal() {
+    return this.xKind == CoordinateReader.LOCAL;
+  }
+
+  /**
+   * @param subject the subject the coordinates are relative to.
+   * @return the vector the coordinates point at.
+   */
+  public @NotNull Vector3 resolve(final @NotNull Positioned subject) {
+    requireNonNull(subject, "subject");
+    if (this.absolute != null) {
+      return this.absolute;
+    }
+    return resolve(subject.position(), subject.yaw(), subject.pitch());
+  }
+
+  /**
+   * @param position the position the coordinates are relative to.
+   * @param yaw      the yaw local coordinates are relative to, in degrees.
+   * @param pitch    the pitch local coordinates are relative to, in degrees.
+   * @return the vector the coordinates point at.
+   */
+  public @NotNull Vector3 resolve(final @NotNull Vector3 position, final double yaw, final double pitch) {
+    requireNonNull(position, "position");
+    if (this.absolute != null) {
+      return this.absolute;
+    }
+
+    if (isLocal()) {
+      // forwards and up unit vectors from the rotation, left being perpendicular to both
+      final double yawCos = Math.cos(Math.toRadians(yaw + 90.0));
+      final double yawSin = Math.sin(Math.toRadians(yaw + 90.0));
+      final double pitchCos = Math.cos(Math.toRadians(-pitch));
+      final double pitchSin = Math.sin(Math.toRadians(-pitch));
+      final double upPitchCos = Math.cos(Math.toRadians(-pitch + 90.0));
+      final double upPitchSin = Math.sin(Math.toRadians(-pitch + 90.0));
+      final double forwardsX = yawCos * pitchCos;
+      final double forwardsY = pitchSin;
+      final double forwardsZ = yawSin * pitchCos;
+      final double upX = yawCos * upPitchCos;
+      final double upY = upPitchSin;
+      final double upZ = yawSin * upPitchCos;
+      final double leftX = -(forwardsY * upZ - forwardsZ * upY);
+      final double leftY = -(forwardsZ * upX - forwardsX * upZ);
+      final double leftZ = -(forwardsX * upY - forwardsY * upX);
+      return position.add(forwardsX * this.z + upX * this.y + leftX * this.x,
+                          forwardsY * this.z + upY * this.y + leftY * this.x,
+                          forwardsZ * this.z + upZ * this.y + leftZ * this.x);
+    }
+
+    return Vector3.at(this.xKind == CoordinateReader.RELATIVE ? position.i() + this.x : this.x,
+                      this.yKind == CoordinateReader.RELATIVE ? position.j() + this.y : this.y,
+                      this.zKind == CoordinateReader.RELATIVE ? position.k() + this.z : this.z);
+  }
+
+  @Override
+  public String toString() {
+    return format(this.x, this.xKind) + ' ' + format(this.y, this.yKind) + ' ' + format(this.z, this.zKind);
+  }
+
+  static String format(final double value, final int kind) {
+    final String prefix = kind == CoordinateReader.RELATIVE ? "~" : kind == CoordinateReader.LOCAL ? "^" : "";
+    return kind != CoordinateReader.ABSOLUTE && value == 0.0 ? prefix : prefix + value;
+  }
+}
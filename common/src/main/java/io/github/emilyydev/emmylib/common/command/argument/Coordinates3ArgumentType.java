@@ -0,0 +1,106 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.github.emilyydev.emmylib.common.command.Positioned;
+import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
+import io.github.emilyydev.emmylib.common.locale.Translations;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static net.kyori.adventure.text.Component.text;
+import static net.kyori.adventure.text.Component.translatable;
+
+/**
+ * Parses absolute, relative ({@code ~}) and local ({@code ^}) coordinates, resolved against the
+ * {@link Positioned} subject of the command through {@link Vector3ArgumentType#getVector3(CommandContext, String)}.
+ *
+ * @see Vector3ArgumentType#vec3Arg() to parse absolute coordinates only.
+ */
+public class Coordinates3ArgumentType implements ArgumentType<Coordinates3> {
+
+  private static final DynamicCommandExceptionType INVALID_FORMAT_EXCEPTION = new DynamicCommandExceptionType(read -> {
+    return ComponentMessage.of(translatable(Translations.translatableKeyInvalidVector3Format(), text(String.valueOf(read))));
+  });
+
+  private static final List<String> EXAMPLES = List.of("0.0 0.0 0.0", "1 2 3", "-1.65 1589 -9681.4", "~ ~ ~", "~1 64 ~-2", "^ ^ ^5");
+
+  private static final Coordinates3ArgumentType INSTANCE = new Coordinates3ArgumentType();
+
+  public static Coordinates3 getCoordinates3(final CommandContext<?> context, final String name) {
+    return context.getArgument(name, Coordinates3.class);
+  }
+
+  /**
+   * @return
+   */
+  public static Coordinates3ArgumentType relativeVec3Arg() {
+    return INSTANCE;
+  }
+
+  private Coordinates3ArgumentType() { }
+
+  @Override
+  public Coordinates3 parse(final StringReader reader) throws CommandSyntaxException {
+    return read(reader, true);
+  }
+
+  @Override
+  public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
+    return CoordinateReader.suggest(builder, 3, true, true);
+  }
+
+  @Override
+  public Collection<String> getExamples() {
+    return EXAMPLES;
+  }
+
+  static Coordinates3 read(final StringReader reader, final boolean allowRelative) throws CommandSyntaxException {
+    final CoordinateReader coordinates = new CoordinateReader(reader, allowRelative, allowRelative);
+    final double x = coordinates.read();
+    final int xKind = coordinates.lastKind();
+    coordinates.separator();
+    final double y = coordinates.read();
+    final int yKind = coordinates.lastKind();
+    coordinates.separator();
+    final double z = coordinates.read();
+    final int zKind = coordinates.lastKind();
+
+    if (!coordinates.end()) {
+      throw INVALID_FORMAT_EXCEPTION.createWithContext(reader, coordinates.attempted());
+    }
+    return new Coordinates3(x, y, z, xKind, yKind, zKind);
+  }
+}
@@ -39,24 +39,17 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.time.temporal.TemporalUnit;
 import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static net.kyori.adventure.text.Component.text;
 import static net.kyori.adventure.text.Component.translatable;
 
 public class DurationArgumentType implements ArgumentType<Duration> {
 
-  private static final Map<String, TemporalUnit> SCALES;
-  private static final List<String> SCALES_SUGGESTIONS;
   private static final Dynamic2CommandExceptionType DURATION_TOO_SMALL = new Dynamic2CommandExceptionType((found, min) -> {
     return ComponentMessage.of(translatable(Translations.translatableKeyDurationTooSmall(),
                                             text(String.valueOf(min)), text(String.valueOf(found))));
@@ -66,34 +59,22 @@ public class DurationArgumentType implements ArgumentType<Duration> {
                                             text(String.valueOf(max)), text(String.valueOf(found))));
   });
   private static final Collection<String> EXAMPLES = List.of("12d", "25mins", "8.5ys", "3mo 5ws 2days4.045secs");
-  private static final Pattern DURATION_PATTERN =
-      Pattern.compile("^" +
-                      "(?:(\\d+(?:\\.\\d+)?)(y)(?:ear)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(mo)(?:nth)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(w)(?:eek)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(d)(?:ay)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(h)(?:r|our)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(m)(?:in|inute)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(?:(s)(?:ec|econd)?s?)?)?" +
-                      "$");
-
-  static {
-    // Use a LinkedHashMap so they retain the order they were put into
-    // That same order will be the one in which suggestions will appear
-    // See #listSuggestions comments for a brief example
-    final var builder = new LinkedHashMap<String, TemporalUnit>(7);
-    builder.put("y", ChronoUnit.YEARS);
-    builder.put("mo", ChronoUnit.MONTHS);
-    builder.put("w", ChronoUnit.WEEKS);
-    builder.put("d", ChronoUnit.DAYS);
-    builder.put("h", ChronoUnit.HOURS);
-    builder.put("m", ChronoUnit.MINUTES);
-    builder.put("s", ChronoUnit.SECONDS);
-
-    SCALES = Map.copyOf(builder);
-    // This is where and why the order has to be retained
-    SCALES_SUGGESTIONS = List.copyOf(builder.keySet());
-  }
+  // Time scales in the order they must appear in, which is also the order they are suggested in
+  private static final String[] SCALES = {"y", "mo", "w", "d", "h", "m", "s"};
+  // Optional spellings following each scale, longest ones last, all of them can be followed by an 's'
+  private static final String[][] SCALE_SUFFIXES = {{"ear"}, {"nth"}, {"eek"}, {"ay"}, {"r", "our"}, {"in", "inute"}, {"ec", "econd"}};
+  private static final long[] SCALE_SECONDS = {
+      ChronoUnit.YEARS.getDuration().getSeconds(),
+      ChronoUnit.MONTHS.getDuration().getSeconds(),
+      ChronoUnit.WEEKS.getDuration().getSeconds(),
+      ChronoUnit.DAYS.getDuration().getSeconds(),
+      ChronoUnit.HOURS.getDuration().getSeconds(),
+      ChronoUnit.MINUTES.getDuration().getSeconds(),
+      ChronoUnit.SECONDS.getDuration().getSeconds()
+  };
+  private static final int SECONDS_SCALE = SCALES.length - 1;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final int MAX_FRACTION_DIGITS = 18;
 
   public static Duration getDuration(final CommandContext<?> context, final String name) {
     return context.getArgument(name, Duration.class);
@@ -130,38 +111,26 @@ public class DurationArgumentType implements ArgumentType<Duration> {
 
   @Override
   public Duration parse(final StringReader reader) throws CommandSyntaxException {
-    final String input;
-    if (StringReader.isQuotedStringStart(reader.peek())) {
-      input = reader.readQuotedString().toLowerCase(Locale.ROOT).replaceAll("\\s", "");
+    final Scanner scanner = new Scanner();
+    final boolean valid;
+    if (reader.canRead() && StringReader.isQuotedStringStart(reader.peek())) {
+      // quoted durations may be spaced out, rare enough to not bother scanning in place
+      final String input = stripWhitespace(reader.readQuotedString());
+      valid = scanner.scan(input, 0, input.length());
     } else {
-      input = reader.readUnquotedString().toLowerCase(Locale.ROOT);
-    }
-
-    if (input.isEmpty()) {
-      throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
+      // bounded by the reader rather than by its string, see RangeArgumentType
+      final int start = reader.getCursor();
+      while (reader.canRead() && StringReader.isAllowedInUnquotedString(reader.peek())) {
+        reader.skip();
+      }
+      valid = scanner.scan(reader.getString(), start, reader.getCursor());
     }
 
-    final Matcher matcher = DURATION_PATTERN.matcher(input);
-    Duration duration = Duration.ZERO;
-
-    if (matcher.find() && !matcher.group().isEmpty()) {
-      for (int i = 1; i <= SCALES.size(); ++i) {
-        final String current = matcher.group(i * 2 - 1);
-        if (current == null) {
-          continue;
-        }
-
-        // Defaults to seconds if no scale is provided (ergo: group is null)
-        final TemporalUnit unit = SCALES.getOrDefault(matcher.group(i * 2), ChronoUnit.SECONDS);
-        final double parsedCurrent = Double.parseDouble(current) * unit.getDuration().getSeconds();
-        // Whacky workaround because you can't use ChronoUnits
-        // larger than DAYS in Duration#plus(long, TemporalUnit)
-        duration = duration.plus(Math.round(parsedCurrent), ChronoUnit.SECONDS);
-      }
-    } else {
+    if (!valid || scanner.scales == 0) {
       throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
     }
 
+    final Duration duration = Duration.ofSeconds(scanner.seconds, scanner.nanos);
     if (this.minimum != null && duration.compareTo(this.minimum) < 0) {
       throw DURATION_TOO_SMALL.createWithContext(reader, MoreUtils.shortDuration(duration),
                                                  MoreUtils.shortDuration(this.minimum));
@@ -178,48 +147,184 @@ public class DurationArgumentType implements ArgumentType<Duration> {
   @Override
   public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
     final String current = builder.getRemaining().toLowerCase(Locale.ROOT);
-    if (StringReader.isQuotedStringStart(current.charAt(0))) {
-      for (int i = 1; i < current.toCharArray().length; ++i) {
-        if (StringReader.isQuotedStringStart(current.charAt(i))) {
-          return Suggestions.empty();
+    final String stripped = stripWhitespace(current);
+    final Scanner scanner = new Scanner();
+
+    // 123 -> [y, mo, w, d, h, m, s]
+    // 123ws4 -> [d, h, m, s]
+    // 123ws4h56 -> [m, s]
+    // 123mo -> [] (can't suggest random numbers, only suggest time scales)
+    if (scanner.scan(stripped, 0, stripped.length()) && scanner.trailingNumber) {
+      for (int i = scanner.lastScale + 1; i < SCALES.length; ++i) {
+        builder.suggest(current + SCALES[i]);
+      }
+      return builder.buildFuture();
+    }
+
+    return Suggestions.empty();
+  }
+
+  @Override
+  public Collection<String> getExamples() {
+    return EXAMPLES;
+  }
+
+  private static String stripWhitespace(final String input) {
+    for (int i = 0; i < input.length(); ++i) {
+      if (Character.isWhitespace(input.charAt(i))) {
+        final StringBuilder builder = new StringBuilder(input.length()).append(input, 0, i);
+        for (int j = i + 1; j < input.length(); ++j) {
+          final char c = input.charAt(j);
+          if (!Character.isWhitespace(c)) {
+            builder.append(c);
+          }
         }
+        return builder.toString();
       }
     }
-    final String sanitized = current.replaceAll("\\s", "");
-    final Matcher matcher = DURATION_PATTERN.matcher(sanitized);
-
-    if (matcher.find()) {
-      int nullGroups = 0;
-      String lastScale = null;
-      // Reverse for loop because we'll take the last non-digit non-null group as base index
-      // for taking the suggestions
-      for (int i = matcher.groupCount(); i > 0; --i) {
-        final String currentGroup = matcher.group(i);
-        if (currentGroup == null) {
-          ++nullGroups;
-        } else if (SCALES.containsKey(currentGroup) && lastScale == null) {
-          lastScale = currentGroup;
+    return input;
+  }
+
+  /**
+   * Single pass over a duration such as {@code 3mo5ws2days4.045secs}: numbers, each followed by a
+   * time scale in decreasing order of magnitude, the last one defaulting to seconds if it has none.
+   */
+  private static final class Scanner {
+
+    long seconds = 0L;
+    int nanos = 0;
+    // amount of numbers scanned, and the index of the scale of the last one given a scale
+    int scales = 0;
+    int lastScale = -1;
+    // whether the input ends with a number without scale
+    boolean trailingNumber = false;
+
+    /**
+     * @return {@code false} if the input is not a valid duration, or is too long to be represented.
+     */
+    boolean scan(final CharSequence input, int index, final int end) {
+      while (true) {
+        if (index == end) {
+          return true;
         }
+
+        // whole part
+        long whole = 0L;
+        final int wholeStart = index;
+        for (char c; index < end && (c = input.charAt(index)) >= '0' && c <= '9'; ++index) {
+          if (whole > (Long.MAX_VALUE - 9L) / 10L) {
+            return false;
+          }
+          whole = whole * 10L + (c - '0');
+        }
+        if (index == wholeStart) {
+          return false;
+        }
+
+        // fractional part, digits past the precision of a double don't matter
+        double fraction = 0.0;
+        if (index < end && input.charAt(index) == '.') {
+          final int fractionStart = ++index;
+          long digits = 0L;
+          int precision = 0;
+          for (char c; index < end && (c = input.charAt(index)) >= '0' && c <= '9'; ++index) {
+            if (precision < MAX_FRACTION_DIGITS) {
+              digits = digits * 10L + (c - '0');
+              ++precision;
+            }
+          }
+          if (index == fractionStart) {
+            return false;
+          }
+          fraction = digits / Math.pow(10.0, precision);
+        }
+
+        final int scale;
+        if (index == end) {
+          scale = SECONDS_SCALE;
+          this.trailingNumber = true;
+        } else {
+          scale = scale(input, index, end);
+          if (scale == -1) {
+            return false;
+          }
+          index += SCALES[scale].length();
+          index = skipSuffix(input, index, end, SCALE_SUFFIXES[scale]);
+          if (index < end && lower(input.charAt(index)) == 's') {
+            ++index;
+          }
+        }
+
+        if (scale <= this.lastScale || !add(whole, fraction, SCALE_SECONDS[scale])) {
+          return false;
+        }
+        // the scale a trailing number defaults to is only a guess while it is being typed
+        if (!this.trailingNumber) {
+          this.lastScale = scale;
+        }
+        ++this.scales;
+      }
+    }
+
+    private boolean add(final long whole, final double fraction, final long scaleSeconds) {
+      try {
+        final long fractionNanos = Math.round(fraction * scaleSeconds * NANOS_PER_SECOND);
+        long nanos = this.nanos + fractionNanos % NANOS_PER_SECOND;
+        long seconds = Math.addExact(this.seconds, Math.multiplyExact(whole, scaleSeconds));
+        seconds = Math.addExact(seconds, fractionNanos / NANOS_PER_SECOND + nanos / NANOS_PER_SECOND);
+        nanos %= NANOS_PER_SECOND;
+        this.seconds = seconds;
+        this.nanos = (int) nanos;
+        return true;
+      } catch (final ArithmeticException exception) {
+        return false;
+      }
+    }
+
+    private static int scale(final CharSequence input, final int index, final int end) {
+      switch (lower(input.charAt(index))) {
+        case 'y':
+          return 0;
+        case 'm':
+          return index + 1 < end && lower(input.charAt(index + 1)) == 'o' ? 1 : 5;
+        case 'w':
+          return 2;
+        case 'd':
+          return 3;
+        case 'h':
+          return 4;
+        case 's':
+          return 6;
+        default:
+          return -1;
       }
+    }
 
-      // 123 -> [y, mo, w, d, h, m, s]
-      // 123ws4 -> [d, h, m, s]
-      // 123ws4h56 -> [m, s]
-      // 123mo -> [] (can't suggest random numbers, only suggest time scales)
-      if (nullGroups % 2 == 1) {
-        final int index = SCALES_SUGGESTIONS.indexOf(lastScale) + 1;
-        for (int i = index; i < SCALES_SUGGESTIONS.size(); ++i) {
-          builder.suggest(current + SCALES_SUGGESTIONS.get(i));
+    private static int skipSuffix(final CharSequence input, final int index, final int end, final String[] suffixes) {
+      for (int i = suffixes.length - 1; i >= 0; --i) {
+        final String suffix = suffixes[i];
+        if (regionMatches(input, index, end, suffix)) {
+          return index + suffix.length();
         }
-        return builder.buildFuture();
       }
+      return index;
     }
 
-    return Suggestions.empty();
-  }
+    private static boolean regionMatches(final CharSequence input, final int index, final int end, final String expected) {
+      if (end - index < expected.length()) {
+        return false;
+      }
+      for (int i = 0; i < expected.length(); ++i) {
+        if (lower(input.charAt(index + i)) != expected.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
 
-  @Override
-  public Collection<String> getExamples() {
-    return EXAMPLES;
+    // only ASCII letters take part in durations
+    private static char lower(final char c) {
+      return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
   }
 }
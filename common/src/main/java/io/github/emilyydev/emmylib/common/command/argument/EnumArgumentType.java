@@ -39,13 +39,20 @@ import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
-import static java.util.Arrays.stream;
-import static java.util.stream.Collectors.toUnmodifiableMap;
+import static java.util.Objects.requireNonNull;
 import static net.kyori.adventure.text.Component.text;
 import static net.kyori.adventure.text.Component.translatable;
 
+/**
+ * Parses the constants of an enum by name, ignoring case.
+ * <p>
+ * Names are looked up in a sorted index built once per enum and shared by every argument type of
+ * that enum, so parsing and completing don't allocate nor scan every constant, which matters for
+ * enums with hundreds of constants.
+ *
+ * @param <E> the type of the enum.
+ */
 public class EnumArgumentType<E extends Enum<E>> implements ArgumentType<E> {
 
   private static final Dynamic2CommandExceptionType UNKNOWN_ENUM_CONSTANT = new Dynamic2CommandExceptionType((value, clazz) -> {
@@ -58,44 +65,59 @@ public class EnumArgumentType<E extends Enum<E>> implements ArgumentType<E> {
   }
 
   public static <E extends Enum<E>> EnumArgumentType<E> of(final Class<E> clazz) {
-    return new EnumArgumentType<>(clazz);
+    return new EnumArgumentType<>(clazz, EnumIndex.of(requireNonNull(clazz, "clazz")));
+  }
+
+  /**
+   * Creates an argument type that also accepts the given aliases for the constants of the enum,
+   * ignoring case as well. Aliases are suggested along with the names of the constants.
+   *
+   * @param clazz   the type of the enum.
+   * @param aliases the constants each alias stands for.
+   * @param <E>     the type of the enum.
+   * @return
+   * @throws IllegalArgumentException if an alias is equal to the name of a constant or to another
+   *                                  alias, ignoring case.
+   */
+  public static <E extends Enum<E>> EnumArgumentType<E> of(final Class<E> clazz, final Map<String, E> aliases) {
+    requireNonNull(clazz, "clazz");
+    requireNonNull(aliases, "aliases");
+    return new EnumArgumentType<>(clazz, aliases.isEmpty() ? EnumIndex.of(clazz) : EnumIndex.build(clazz, Map.copyOf(aliases)));
   }
 
   private final Class<E> clazz;
-  private final Map<String, E> nameValueMap;
+  private final EnumIndex<E> index;
 
-  private EnumArgumentType(final Class<E> clazz) {
+  private EnumArgumentType(final Class<E> clazz, final EnumIndex<E> index) {
     this.clazz = clazz;
-
-    final E[] values = clazz.getEnumConstants();
-    this.nameValueMap = stream(values).collect(toUnmodifiableMap(e -> e.name().toLowerCase(), e -> e));
+    this.index = index;
   }
 
   @Override
   public E parse(final StringReader reader) throws CommandSyntaxException {
-    final String name = reader.readUnquotedString().toLowerCase(Locale.ROOT);
-    final E value = this.nameValueMap.get(name);
+    final String string = reader.getString();
+    final int start = reader.getCursor();
+    while (reader.canRead() && StringReader.isAllowedInUnquotedString(reader.peek())) {
+      reader.skip();
+    }
+
+    final int end = reader.getCursor();
+    final E value = this.index.get(string, start, end);
     if (value != null) {
       return value;
     }
 
-    throw UNKNOWN_ENUM_CONSTANT.createWithContext(reader, name, this.clazz.getSimpleName());
+    throw UNKNOWN_ENUM_CONSTANT.createWithContext(reader, string.substring(start, end).toLowerCase(Locale.ROOT), this.clazz.getSimpleName());
   }
 
   @Override
   public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
-    final String current = builder.getRemaining().toLowerCase(Locale.ROOT);
-    for (final String name : this.nameValueMap.keySet()) {
-      if (name.startsWith(current)) {
-        builder.suggest(name);
-      }
-    }
-
+    this.index.forEachWithPrefix(builder.getRemaining(), builder::suggest);
     return builder.buildFuture();
   }
 
   @Override
   public Collection<String> getExamples() {
-    return this.nameValueMap.keySet().stream().collect(Collectors.toUnmodifiableList());
+    return this.index.examples();
   }
 }
@@ -0,0 +1,196 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The names of the constants of an enum (and their aliases, if any) sorted by their lower case form,
+ * for case-insensitive lookups and prefix searches without allocating.
+ * <p>
+ * Case is folded one char at a time with {@link Character#toLowerCase(char)}, both when indexing and
+ * when matching.
+ *
+ * @param <E> the type of the enum.
+ */
+final class EnumIndex<E extends Enum<E>> {
+
+  private static final ClassValue<EnumIndex<?>> INDEXES = new ClassValue<>() {
+    @Override
+    protected EnumIndex<?> computeValue(final Class<?> type) {
+      return index(type, Map.of());
+    }
+  };
+
+  /**
+   * Gets the index of the constants of an enum, built once and shared by every enum argument type
+   * without aliases.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends Enum<E>> EnumIndex<E> of(final Class<E> clazz) {
+    return (EnumIndex<E>) INDEXES.get(clazz);
+  }
+
+  /**
+   * Builds the index of the constants of an enum, plus the given aliases.
+   *
+   * @throws IllegalArgumentException if two names are equal ignoring case.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends Enum<E>> EnumIndex<E> build(final Class<E> clazz, final Map<String, E> aliases) {
+    return (EnumIndex<E>) index(clazz, aliases);
+  }
+
+  private static EnumIndex<?> index(final Class<?> clazz, final Map<String, ? extends Enum<?>> aliases) {
+    final Enum<?>[] constants = (Enum<?>[]) clazz.getEnumConstants();
+    final List<Entry> entries = new ArrayList<>(constants.length + aliases.size());
+    final List<String> examples = new ArrayList<>(constants.length);
+    for (final Enum<?> constant : constants) {
+      final String name = lowerCase(constant.name());
+      entries.add(new Entry(name, constant));
+      examples.add(name);
+    }
+    for (final Map.Entry<String, ? extends Enum<?>> alias : aliases.entrySet()) {
+      entries.add(new Entry(lowerCase(alias.getKey()), alias.getValue()));
+    }
+
+    entries.sort(Comparator.comparing(entry -> entry.name));
+    final String[] names = new String[entries.size()];
+    final Object[] values = new Object[entries.size()];
+    for (int i = 0; i < names.length; ++i) {
+      final Entry entry = entries.get(i);
+      if (i > 0 && names[i - 1].equals(entry.name)) {
+        throw new IllegalArgumentException("Duplicate name " + entry.name + " in enum " + clazz.getName());
+      }
+      names[i] = entry.name;
+      values[i] = entry.value;
+    }
+    return new EnumIndex<>(names, values, List.copyOf(examples));
+  }
+
+  private final String[] names;
+  private final Object[] values;
+  private final List<String> examples;
+
+  private EnumIndex(final String[] names, final Object[] values, final List<String> examples) {
+    this.names = names;
+    this.values = values;
+    this.examples = examples;
+  }
+
+  /**
+   * @return the constant whose name or alias is the given region of the input ignoring case, or
+   *     {@code null} if there is none.
+   */
+  @SuppressWarnings("unchecked")
+  E get(final CharSequence input, final int start, final int end) {
+    int low = 0;
+    int high = this.names.length - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int compare = compare(this.names[middle], input, start, end, false);
+      if (compare < 0) {
+        low = middle + 1;
+      } else if (compare > 0) {
+        high = middle - 1;
+      } else {
+        return (E) this.values[middle];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Visits the names and aliases starting with the given prefix ignoring case, in order.
+   */
+  void forEachWithPrefix(final CharSequence prefix, final NameVisitor visitor) {
+    // first name not less than the prefix
+    int low = 0;
+    int high = this.names.length;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (compare(this.names[middle], prefix, 0, prefix.length(), false) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    for (int i = low; i < this.names.length && compare(this.names[i], prefix, 0, prefix.length(), true) == 0; ++i) {
+      visitor.visit(this.names[i]);
+    }
+  }
+
+  /**
+   * @return the lower case names of the constants, without aliases.
+   */
+  List<String> examples() {
+    return this.examples;
+  }
+
+  // compares a name with a region of the input folded to lower case, or only with as many chars of
+  // the name as the region has when matching prefixes
+  private static int compare(final String name, final CharSequence input, final int start, final int end, final boolean prefix) {
+    final int length = end - start;
+    final int common = Math.min(name.length(), length);
+    for (int i = 0; i < common; ++i) {
+      final char a = name.charAt(i);
+      final char b = Character.toLowerCase(input.charAt(start + i));
+      if (a != b) {
+        return a - b;
+      }
+    }
+    return prefix && name.length() >= length ? 0 : name.length() - length;
+  }
+
+  private static String lowerCase(final String name) {
+    final char[] chars = name.toCharArray();
+    for (int i = 0; i < chars.length; ++i) {
+      chars[i] = Character.toLowerCase(chars[i]);
+    }
+    return new String(chars);
+  }
+
+  @FunctionalInterface
+  interface NameVisitor {
+
+    void visit(String name);
+  }
+
+  private static final class Entry {
+
+    final String name;
+    final Enum<?> value;
+
+    Entry(final String name, final Enum<?> value) {
+      this.name = name;
+      this.value = value;
+    }
+  }
+}
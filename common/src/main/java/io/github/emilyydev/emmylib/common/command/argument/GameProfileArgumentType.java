@@ -0,0 +1,201 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
+import io.github.emilyydev.emmylib.common.locale.Translations;
+import io.github.emilyydev.emmylib.common.util.GameProfileFetchers;
+import io.github.emilyydev.emmylib.common.util.GameProfileIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+import static net.kyori.adventure.text.Component.text;
+import static net.kyori.adventure.text.Component.translatable;
+
+/**
+ * Parses players by name or unique id, looked up in a {@link GameProfileIndex} of the known profiles.
+ * <p>
+ * Names are completed from the index only, so completing never blocks nor does any I/O. Players
+ * missing from the index are either rejected or looked up asynchronously with
+ * {@link GameProfileFetchers} when the parsed {@link GameProfileReference} is resolved.
+ */
+public class GameProfileArgumentType implements ArgumentType<GameProfileReference> {
+
+  private static final DynamicCommandExceptionType UNKNOWN_PROFILE = new DynamicCommandExceptionType(input -> {
+    return ComponentMessage.of(translatable(Translations.translatableKeyUnknownProfile(), text(String.valueOf(input))));
+  });
+
+  private static final List<String> EXAMPLES = List.of("Notch", "jeb_", "069a79f4-44e9-4726-a5be-fca90e38aaf5");
+  private static final int MAXIMUM_NAME_LENGTH = 16;
+
+  // lower case names and unique ids of the profiles missing from the index, shared by every argument
+  // type; failed lookups are dropped by the cache
+  private static final AsyncCache<Object, GameProfile> FETCHED =
+      Caffeine.newBuilder()
+              .expireAfterWrite(Duration.ofMinutes(10L))
+              .maximumSize(1024L)
+              .buildAsync();
+
+  public static GameProfileReference getGameProfileReference(final CommandContext<?> context, final String name) {
+    return context.getArgument(name, GameProfileReference.class);
+  }
+
+  /**
+   * Gets the parsed profile, looking it up if it was not known when the command was parsed.
+   *
+   * @param context the context of the command.
+   * @param name    the name of the argument.
+   * @return the future profile.
+   */
+  public static CompletableFuture<GameProfile> getGameProfile(final CommandContext<?> context, final String name) {
+    return getGameProfileReference(context, name).resolve();
+  }
+
+  /**
+   * An argument type accepting any player, looking up the players missing from the index with
+   * {@link GameProfileFetchers}.
+   *
+   * @param index
+   * @return
+   */
+  public static GameProfileArgumentType gameProfileArg(final @NotNull GameProfileIndex index) {
+    return new GameProfileArgumentType(requireNonNull(index, "index"), true);
+  }
+
+  /**
+   * An argument type accepting only the players in the index.
+   *
+   * @param index
+   * @return
+   */
+  public static GameProfileArgumentType knownGameProfileArg(final @NotNull GameProfileIndex index) {
+    return new GameProfileArgumentType(requireNonNull(index, "index"), false);
+  }
+
+  private final GameProfileIndex index;
+  private final boolean fetchUnknown;
+
+  private GameProfileArgumentType(final GameProfileIndex index, final boolean fetchUnknown) {
+    this.index = index;
+    this.fetchUnknown = fetchUnknown;
+  }
+
+  @Override
+  public GameProfileReference parse(final StringReader reader) throws CommandSyntaxException {
+    final int start = reader.getCursor();
+    final String input = reader.readUnquotedString();
+    final UUID uniqueId = uniqueId(input);
+    final GameProfile known = uniqueId == null ? this.index.byName(input) : this.index.byUniqueId(uniqueId);
+
+    if (known == null && !(this.fetchUnknown && (uniqueId != null || isValidName(input)))) {
+      reader.setCursor(start);
+      throw UNKNOWN_PROFILE.createWithContext(reader, input);
+    }
+    return new GameProfileReference(this, input, uniqueId, known);
+  }
+
+  @Override
+  public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
+    this.index.forEachWithPrefix(builder.getRemaining(), profile -> builder.suggest(profile.getName()));
+    return builder.buildFuture();
+  }
+
+  @Override
+  public Collection<String> getExamples() {
+    return EXAMPLES;
+  }
+
+  CompletableFuture<GameProfile> fetch(final GameProfileReference reference) {
+    final UUID uniqueId = reference.uniqueId();
+    if (uniqueId != null) {
+      return FETCHED.get(uniqueId, (key, executor) -> GameProfileFetchers.fetchGameProfile(uniqueId));
+    }
+    final String name = reference.input();
+    return FETCHED.get(name.toLowerCase(Locale.ROOT), (key, executor) -> GameProfileFetchers.fetchGameProfile(name));
+  }
+
+  // the hyphenated and the plain hex forms of a unique id, or null if the input is neither
+  private static UUID uniqueId(final String input) {
+    final boolean hyphenated = input.length() == 36;
+    if (!hyphenated && input.length() != 32) {
+      return null;
+    }
+
+    long most = 0L;
+    long least = 0L;
+    int digits = 0;
+    for (int i = 0; i < input.length(); ++i) {
+      final char c = input.charAt(i);
+      if (hyphenated && (i == 8 || i == 13 || i == 18 || i == 23)) {
+        if (c != '-') {
+          return null;
+        }
+        continue;
+      }
+
+      final int digit = c < 0x80 ? Character.digit(c, 16) : -1;
+      if (digit < 0) {
+        return null;
+      }
+      if (digits++ < 16) {
+        most = most << 4 | digit;
+      } else {
+        least = least << 4 | digit;
+      }
+    }
+    return new UUID(most, least);
+  }
+
+  private static boolean isValidName(final String input) {
+    if (input.isEmpty() || input.length() > MAXIMUM_NAME_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < input.length(); ++i) {
+      final char c = input.charAt(i);
+      if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,103 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.mojang.authlib.GameProfile;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A player given to a command by name or unique id, as parsed by {@link GameProfileArgumentType}.
+ * <p>
+ * Profiles that were not known when the command was parsed are only looked up once
+ * {@link #resolve()} is called, so parsing (which also happens while completing) never does any I/O.
+ */
+public final class GameProfileReference {
+
+  private final GameProfileArgumentType type;
+  private final String input;
+  private final @Nullable UUID uniqueId;
+  private final @Nullable GameProfile known;
+  private volatile CompletableFuture<GameProfile> resolved;
+
+  GameProfileReference(final GameProfileArgumentType type, final String input, final @Nullable UUID uniqueId,
+                       final @Nullable GameProfile known) {
+    this.type = type;
+    this.input = input;
+    this.uniqueId = uniqueId;
+    this.known = known;
+    if (known != null) {
+      this.resolved = CompletableFuture.completedFuture(known);
+    }
+  }
+
+  /**
+   * @return the name or unique id as typed.
+   */
+  public String input() {
+    return this.input;
+  }
+
+  /**
+   * @return the unique id that was typed, or {@code null} if a name was typed.
+   */
+  public @Nullable UUID uniqueId() {
+    return this.uniqueId;
+  }
+
+  /**
+   * @return the profile found in the index when parsing, or {@code null} if it was not known.
+   */
+  public @Nullable GameProfile known() {
+    return this.known;
+  }
+
+  /**
+   * Gets the profile, looking it up with {@link io.github.emilyydev.emmylib.common.util.GameProfileFetchers}
+   * if it was not known when parsing. Lookups are shared and cached for a while.
+   * <p>
+   * The future completes exceptionally with a
+   * {@link io.github.emilyydev.emmylib.common.util.NoProfileFoundException} if no profile has the
+   * name or unique id.
+   *
+   * @return
+   */
+  public CompletableFuture<GameProfile> resolve() {
+    CompletableFuture<GameProfile> resolved = this.resolved;
+    if (resolved == null) {
+      // racing threads get the same future from the cache of the argument type
+      this.resolved = resolved = this.type.fetch(this);
+    }
+    return resolved;
+  }
+
+  @Override
+  public String toString() {
+    return "GameProfileReference(" + this.input + ')';
+  }
+}
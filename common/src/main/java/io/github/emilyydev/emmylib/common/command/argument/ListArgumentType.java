@@ -0,0 +1,184 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.Dynamic2CommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
+import io.github.emilyydev.emmylib.common.locale.Translations;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+import static net.kyori.adventure.text.Component.text;
+import static net.kyori.adventure.text.Component.translatable;
+
+/**
+ * Parses a comma-separated list of values of another argument type ({@code red,green,blue}).
+ * <p>
+ * Each value is parsed in place by the argument type of the values, which must be unquoted, and
+ * suggestions are those of the value being typed.
+ *
+ * @param <T> the type of the values.
+ */
+public class ListArgumentType<T> implements ArgumentType<List<T>> {
+
+  private static final char SEPARATOR = ',';
+
+  private static final Dynamic2CommandExceptionType LIST_TOO_SMALL = new Dynamic2CommandExceptionType((minimum, found) -> {
+    return ComponentMessage.of(translatable(Translations.translatableKeyListTooSmall(),
+                                            text(String.valueOf(minimum)), text(String.valueOf(found))));
+  });
+
+  private static final Dynamic2CommandExceptionType LIST_TOO_BIG = new Dynamic2CommandExceptionType((maximum, found) -> {
+    return ComponentMessage.of(translatable(Translations.translatableKeyListTooBig(),
+                                            text(String.valueOf(maximum)), text(String.valueOf(found))));
+  });
+
+  @SuppressWarnings("unchecked")
+  public static <T> List<T> getList(final CommandContext<?> context, final String name) {
+    return context.getArgument(name, List.class);
+  }
+
+  /**
+   * @param type the argument type of the values.
+   * @param <T>  the type of the values.
+   * @return
+   */
+  public static <T> ListArgumentType<T> listOf(final @NotNull ArgumentType<T> type) {
+    return listOf(type, 1, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @param type        the argument type of the values.
+   * @param minimumSize the minimum amount of values, at least 1.
+   * @param maximumSize the maximum amount of values.
+   * @param <T>         the type of the values.
+   * @return
+   * @throws IllegalArgumentException if the minimum size is less than 1 or greater than the maximum
+   *                                  size.
+   */
+  public static <T> ListArgumentType<T> listOf(final @NotNull ArgumentType<T> type, final int minimumSize, final int maximumSize) {
+    requireNonNull(type, "type");
+    if (minimumSize < 1 || minimumSize > maximumSize) {
+      throw new IllegalArgumentException("Invalid list size bounds " + minimumSize + ", " + maximumSize);
+    }
+    return new ListArgumentType<>(type, minimumSize, maximumSize);
+  }
+
+  private final ArgumentType<T> type;
+  private final int minimumSize;
+  private final int maximumSize;
+  private final List<String> examples;
+
+  private ListArgumentType(final ArgumentType<T> type, final int minimumSize, final int maximumSize) {
+    this.type = type;
+    this.minimumSize = minimumSize;
+    this.maximumSize = maximumSize;
+
+    final List<String> examples = new ArrayList<>();
+    final StringBuilder example = new StringBuilder();
+    final Iterator<String> values = type.getExamples().iterator();
+    for (int size = 1; values.hasNext() && size <= maximumSize; ++size) {
+      if (size > 1) {
+        example.append(SEPARATOR);
+      }
+      example.append(values.next());
+      if (size >= minimumSize) {
+        examples.add(example.toString());
+      }
+    }
+    this.examples = List.copyOf(examples);
+  }
+
+  @Override
+  public List<T> parse(final StringReader reader) throws CommandSyntaxException {
+    final String string = reader.getString();
+    final int start = reader.getCursor();
+    final int end = BoundedStringReader.argumentEnd(reader);
+    final int size = count(string, start, end) + 1;
+    if (size > this.maximumSize) {
+      throw LIST_TOO_BIG.createWithContext(reader, this.maximumSize, size);
+    }
+    if (size < this.minimumSize) {
+      throw LIST_TOO_SMALL.createWithContext(reader, this.minimumSize, size);
+    }
+
+    final BoundedStringReader bounded = new BoundedStringReader(string);
+    final List<T> values = new ArrayList<>(size);
+    int cursor = start;
+    while (true) {
+      final int separator = string.indexOf(SEPARATOR, cursor);
+      final int limit = separator == -1 || separator > end ? end : separator;
+      values.add(bounded.parse(this.type, cursor, limit));
+      if (limit == end) {
+        break;
+      }
+      cursor = limit + 1;
+    }
+
+    reader.setCursor(end);
+    return Collections.unmodifiableList(values);
+  }
+
+  @Override
+  public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
+    final String input = builder.getInput();
+    final int start = builder.getStart();
+    if (count(input, start, input.length()) >= this.maximumSize) {
+      return Suggestions.empty();
+    }
+
+    final int separator = input.lastIndexOf(SEPARATOR);
+    return this.type.listSuggestions(context, separator < start ? builder : builder.createOffset(separator + 1));
+  }
+
+  @Override
+  public Collection<String> getExamples() {
+    return this.examples;
+  }
+
+  private static int count(final String string, final int start, final int end) {
+    int count = 0;
+    for (int i = start; i < end; ++i) {
+      if (string.charAt(i) == SEPARATOR) {
+        ++count;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,212 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.context.StringRange;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.IntegerSuggestion;
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Wraps an argument type whose suggestions only depend on the text of the argument being typed (such
+ * as {@link DurationArgumentType} and {@link EnumArgumentType}), remembering the suggestions for the
+ * most recently typed texts.
+ * <p>
+ * Suggestions are computed as if the argument started at the beginning of the input, and their
+ * ranges are moved to where the argument starts when they are handed out, so the same text typed
+ * anywhere in any command by anyone hits the cache.
+ * <p>
+ * <strong>Only wrap argument types whose suggestions don't depend on the context.</strong> The
+ * wrapped type is asked with the context of whoever typed a text first, and its suggestions are then
+ * handed to every other subject typing the same text. Suggestions filtered by the subject's
+ * permissions, or by what the subject can see, would leak to other subjects. Suggestions backed by
+ * data that changes over time (such as a {@link io.github.emilyydev.emmylib.common.util.GameProfileIndex})
+ * may also be stale until the text is evicted.
+ *
+ * @param <T> the type of the parsed argument.
+ */
+public final class MemoizingArgumentType<T> implements ArgumentType<T> {
+
+  private static final long DEFAULT_MAXIMUM_SIZE = 256L;
+
+  /**
+   * Memoizes the suggestions of the given argument type, keeping up to a few hundred texts. Argument
+   * types that already memoize their suggestions are returned as-is.
+   *
+   * @param type the argument type, whose suggestions must not depend on the context nor on the text
+   *             before the argument.
+   * @param <T>  the type of the parsed argument.
+   * @return
+   */
+  public static <T> MemoizingArgumentType<T> memoizeSuggestions(final @NotNull ArgumentType<T> type) {
+    requireNonNull(type, "type");
+    if (type instanceof MemoizingArgumentType) {
+      return (MemoizingArgumentType<T>) type;
+    }
+    return new MemoizingArgumentType<>(type, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * Memoizes the suggestions of the given argument type. Argument types that already memoize their
+   * suggestions are returned as-is if they remember as many texts, or else the type they wrap is
+   * wrapped again.
+   *
+   * @param type        the argument type, whose suggestions must not depend on the context nor on the
+   *                    text before the argument.
+   * @param maximumSize how many texts to remember the suggestions of.
+   * @param <T>         the type of the parsed argument.
+   * @return
+   * @throws IllegalArgumentException if the maximum size is negative.
+   */
+  public static <T> MemoizingArgumentType<T> memoizeSuggestions(final @NotNull ArgumentType<T> type, final long maximumSize) {
+    requireNonNull(type, "type");
+    if (maximumSize < 0L) {
+      throw new IllegalArgumentException("maximumSize must not be negative, got " + maximumSize);
+    }
+    if (type instanceof MemoizingArgumentType) {
+      final MemoizingArgumentType<T> memoizing = (MemoizingArgumentType<T>) type;
+      return memoizing.maximumSize == maximumSize ? memoizing : new MemoizingArgumentType<>(memoizing.type, maximumSize);
+    }
+    return new MemoizingArgumentType<>(type, maximumSize);
+  }
+
+  private final ArgumentType<T> type;
+  private final long maximumSize;
+  // failed suggestions are dropped by the cache
+  private final AsyncCache<String, CachedSuggestions> suggestions;
+
+  private MemoizingArgumentType(final ArgumentType<T> type, final long maximumSize) {
+    this.type = type;
+    this.maximumSize = maximumSize;
+    this.suggestions = Caffeine.newBuilder().maximumSize(maximumSize).buildAsync();
+  }
+
+  /**
+   * @return the wrapped argument type.
+   */
+  public ArgumentType<T> type() {
+    return this.type;
+  }
+
+  @Override
+  public T parse(final StringReader reader) throws CommandSyntaxException {
+    return this.type.parse(reader);
+  }
+
+  @Override
+  public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
+    final int start = builder.getStart();
+    final CompletableFuture<CachedSuggestions> cached = this.suggestions.get(builder.getRemaining(), (remaining, executor) -> {
+      return this.type.listSuggestions(context, new SuggestionsBuilder(remaining, 0)).thenApply(CachedSuggestions::new);
+    });
+
+    if (cached.isDone() && !cached.isCompletedExceptionally()) {
+      return CompletableFuture.completedFuture(cached.join().at(start));
+    }
+    return cached.thenApply(suggestions -> suggestions.at(start));
+  }
+
+  @Override
+  public Collection<String> getExamples() {
+    return this.type.getExamples();
+  }
+
+  @Override
+  public String toString() {
+    return "MemoizingArgumentType(" + this.type + ')';
+  }
+
+  private static final class CachedSuggestions {
+
+    private final Suggestions suggestions;
+    // arguments mostly start at the same index of the same command, so the last move is kept
+    private volatile Moved lastMoved;
+
+    CachedSuggestions(final Suggestions suggestions) {
+      this.suggestions = suggestions;
+    }
+
+    Suggestions at(final int start) {
+      // empty suggestions are ignored wherever they are
+      if (start == 0 || this.suggestions.isEmpty()) {
+        return this.suggestions;
+      }
+
+      final Moved lastMoved = this.lastMoved;
+      if (lastMoved != null && lastMoved.start == start) {
+        return lastMoved.suggestions;
+      }
+
+      final Suggestions moved = move(this.suggestions, start);
+      this.lastMoved = new Moved(start, moved);
+      return moved;
+    }
+
+    private static Suggestions move(final Suggestions suggestions, final int offset) {
+      final List<Suggestion> list = suggestions.getList();
+      final List<Suggestion> moved = new ArrayList<>(list.size());
+      for (final Suggestion suggestion : list) {
+        final StringRange range = move(suggestion.getRange(), offset);
+        if (suggestion instanceof IntegerSuggestion) {
+          moved.add(new IntegerSuggestion(range, ((IntegerSuggestion) suggestion).getValue(), suggestion.getTooltip()));
+        } else {
+          moved.add(new Suggestion(range, suggestion.getText(), suggestion.getTooltip()));
+        }
+      }
+      return new Suggestions(move(suggestions.getRange(), offset), moved);
+    }
+
+    private static StringRange move(final StringRange range, final int offset) {
+      return new StringRange(range.getStart() + offset, range.getEnd() + offset);
+    }
+  }
+
+  private static final class Moved {
+
+    final int start;
+    final Suggestions suggestions;
+
+    Moved(final int start, final Suggestions suggestions) {
+      this.start = start;
+      this.suggestions = suggestions;
+    }
+  }
+}
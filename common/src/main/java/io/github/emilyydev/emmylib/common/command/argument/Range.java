@@ -0,0 +1,84 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A range of values parsed by a {@link RangeArgumentType}, including both of its ends. Either end may
+ * be missing, in which case the range is unbounded on that side.
+ *
+ * @param <T> the type of the values.
+ */
+public final class Range<T> {
+
+  private final @Nullable T minimum;
+  private final @Nullable T maximum;
+  private final Comparator<? super T> comparator;
+
+  Range(final @Nullable T minimum, final @Nullable T maximum, final Comparator<? super T> comparator) {
+    this.minimum = minimum;
+    this.maximum = maximum;
+    this.comparator = comparator;
+  }
+
+  /**
+   * @return the smallest value in the range, or {@code null} if it is unbounded below.
+   */
+  public @Nullable T minimum() {
+    return this.minimum;
+  }
+
+  /**
+   * @return the biggest value in the range, or {@code null} if it is unbounded above.
+   */
+  public @Nullable T maximum() {
+    return this.maximum;
+  }
+
+  /**
+   * @param value
+   * @return
+   */
+  public boolean contains(final @NotNull T value) {
+    requireNonNull(value, "value");
+    return (this.minimum == null || this.comparator.compare(this.minimum, value) <= 0)
+           && (this.maximum == null || this.comparator.compare(value, this.maximum) <= 0);
+  }
+
+  @Override
+  public String toString() {
+    if (this.minimum != null && this.minimum == this.maximum) {
+      return String.valueOf(this.minimum);
+    }
+    return (this.minimum == null ? "" : String.valueOf(this.minimum)) + ".." + (this.maximum == null ? "" : String.valueOf(this.maximum));
+  }
+}
@@ -0,0 +1,180 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.Dynamic2CommandExceptionType;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
+import io.github.emilyydev.emmylib.common.locale.Translations;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+import static net.kyori.adventure.text.Component.text;
+import static net.kyori.adventure.text.Component.translatable;
+
+/**
+ * Parses a value ({@code 5}) or a range of values ({@code 1..10}, {@code ..10}, {@code 1..}) of
+ * another argument type, both ends included.
+ * <p>
+ * Each end is parsed in place by the argument type of the values, which must be unquoted, and
+ * suggestions are those of the end being typed.
+ *
+ * @param <T> the type of the values.
+ */
+public class RangeArgumentType<T> implements ArgumentType<Range<T>> {
+
+  private static final String SEPARATOR = "..";
+
+  private static final SimpleCommandExceptionType EMPTY_RANGE =
+      new SimpleCommandExceptionType(ComponentMessage.of(translatable(Translations.translatableKeyEmptyRange())));
+
+  private static final Dynamic2CommandExceptionType RANGE_SWAPPED = new Dynamic2CommandExceptionType((minimum, maximum) -> {
+    return ComponentMessage.of(translatable(Translations.translatableKeyRangeSwapped(),
+                                            text(String.valueOf(minimum)), text(String.valueOf(maximum))));
+  });
+
+  @SuppressWarnings("unchecked")
+  public static <T> Range<T> getRange(final CommandContext<?> context, final String name) {
+    return context.getArgument(name, Range.class);
+  }
+
+  public static RangeArgumentType<Integer> intRange() {
+    return range(IntegerArgumentType.integer());
+  }
+
+  public static RangeArgumentType<Double> doubleRange() {
+    return range(DoubleArgumentType.doubleArg());
+  }
+
+  public static RangeArgumentType<Duration> durationRange() {
+    return range(DurationArgumentType.duration());
+  }
+
+  /**
+   * @param type the argument type of the values.
+   * @param <T>  the type of the values.
+   * @return
+   */
+  public static <T extends Comparable<? super T>> RangeArgumentType<T> range(final @NotNull ArgumentType<T> type) {
+    return range(type, Comparator.naturalOrder());
+  }
+
+  /**
+   * @param type       the argument type of the values.
+   * @param comparator the order of the values.
+   * @param <T>        the type of the values.
+   * @return
+   */
+  public static <T> RangeArgumentType<T> range(final @NotNull ArgumentType<T> type, final @NotNull Comparator<? super T> comparator) {
+    return new RangeArgumentType<>(requireNonNull(type, "type"), requireNonNull(comparator, "comparator"));
+  }
+
+  private final ArgumentType<T> type;
+  private final Comparator<? super T> comparator;
+  private final List<String> examples;
+
+  private RangeArgumentType(final ArgumentType<T> type, final Comparator<? super T> comparator) {
+    this.type = type;
+    this.comparator = comparator;
+
+    final Iterator<String> examples = type.getExamples().iterator();
+    if (examples.hasNext()) {
+      final String example = examples.next();
+      this.examples = List.of(example, example + SEPARATOR + example, SEPARATOR + example, example + SEPARATOR);
+    } else {
+      this.examples = List.of();
+    }
+  }
+
+  @Override
+  public Range<T> parse(final StringReader reader) throws CommandSyntaxException {
+    final String string = reader.getString();
+    final int start = reader.getCursor();
+    final int end = BoundedStringReader.argumentEnd(reader);
+    final int separator = separator(string, start, end);
+    final BoundedStringReader bounded = new BoundedStringReader(string);
+
+    final T minimum = separator == start ? null : bounded.parse(this.type, start, separator == -1 ? end : separator);
+    if (separator == -1) {
+      reader.setCursor(end);
+      return new Range<>(minimum, minimum, this.comparator);
+    }
+
+    final T maximum = separator + SEPARATOR.length() == end ? null : bounded.parse(this.type, separator + SEPARATOR.length(), end);
+    if (minimum == null && maximum == null) {
+      throw EMPTY_RANGE.createWithContext(reader);
+    }
+    if (minimum != null && maximum != null && this.comparator.compare(minimum, maximum) > 0) {
+      throw RANGE_SWAPPED.createWithContext(reader, minimum, maximum);
+    }
+
+    reader.setCursor(end);
+    return new Range<>(minimum, maximum, this.comparator);
+  }
+
+  @Override
+  public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
+    final String input = builder.getInput();
+    final int start = builder.getStart();
+    final int separator = separator(input, start, input.length());
+    if (separator != -1) {
+      return this.type.listSuggestions(context, builder.createOffset(separator + SEPARATOR.length()));
+    }
+
+    final CompletableFuture<Suggestions> suggestions = this.type.listSuggestions(context, builder);
+    // a complete minimum, suggest the separator as well
+    if (start == input.length() || !new BoundedStringReader(input).canParse(this.type, start, input.length())) {
+      return suggestions;
+    }
+    final Suggestions open = builder.restart().suggest(builder.getRemaining() + SEPARATOR).build();
+    return suggestions.thenApply(minimum -> Suggestions.merge(input, List.of(minimum, open)));
+  }
+
+  @Override
+  public Collection<String> getExamples() {
+    return this.examples;
+  }
+
+  private static int separator(final String string, final int start, final int end) {
+    final int separator = string.indexOf(SEPARATOR, start);
+    return separator == -1 || separator + SEPARATOR.length() > end ? -1 : separator;
+  }
+}
@@ -29,72 +29,75 @@ import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
-import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
-import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
-import io.github.emilyydev.emmylib.common.locale.Translations;
+import io.github.emilyydev.emmylib.common.command.Positioned;
 import io.github.emilyydev.emmylib.common.util.container.Vector2;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.regex.Pattern;
-
-import static net.kyori.adventure.text.Component.text;
-import static net.kyori.adventure.text.Component.translatable;
 
+/**
+ * Parses absolute coordinates only.
+ *
+ * @see Coordinates2ArgumentType#relativeVec2Arg() to parse relative coordinates too.
+ */
 public class Vector2ArgumentType implements ArgumentType<Vector2> {
 
-  private static final DynamicCommandExceptionType INVALID_FORMAT_EXCEPTION = new DynamicCommandExceptionType(read -> {
-    return ComponentMessage.of(translatable(Translations.translatableKeyInvalidVector2Format(), text(String.valueOf(read))));
-  });
-
   private static final List<String> EXAMPLES = List.of("0.0 0.0", "1 2", "-1.65 1589");
 
-  private static final Pattern UNIT_PATTERN = Pattern.compile("-?\\d+(?:\\.\\d+)?");
-  private static final Pattern VEC2_PATTERN = Pattern.compile(UNIT_PATTERN.pattern() + ' '
-                                                              + UNIT_PATTERN.pattern());
-
+  private static final Vector2ArgumentType INSTANCE = new Vector2ArgumentType();
+
+  /**
+   * Gets the vector parsed by either a {@link Vector2ArgumentType} or a {@link Coordinates2ArgumentType},
+   * relative to the subject of the context if any coordinate is relative.
+   *
+   * @param context the context of the command.
+   * @param name    the name of the argument.
+   * @return the vector.
+   * @throws IllegalArgumentException if there is no such argument, or if there are relative
+   *                                  coordinates and the subject is not {@link Positioned}.
+   */
   public static Vector2 getVector2(final CommandContext<?> context, final String name) {
-    return context.getArgument(name, Vector2.class);
+    final Object argument = context.getArgument(name, Object.class);
+    if (argument instanceof Vector2) {
+      return (Vector2) argument;
+    }
+    if (!(argument instanceof Coordinates2)) {
+      throw new IllegalArgumentException("Argument '" + name + "' is defined as " + argument.getClass().getSimpleName() + ", not Vector2");
+    }
+
+    final Coordinates2 coordinates = (Coordinates2) argument;
+    if (coordinates.isAbsolute()) {
+      return coordinates.resolve(Vector2.ZERO);
+    }
+
+    final Object source = context.getSource();
+    if (!(source instanceof Positioned)) {
+      throw new IllegalArgumentException("Relative coordinates need a Positioned subject, got " + source);
+    }
+    return coordinates.resolve((Positioned) source);
   }
 
+  /**
+   * @return
+   */
   public static Vector2ArgumentType vec2Arg() {
-    return new Vector2ArgumentType();
+    return INSTANCE;
   }
 
   private Vector2ArgumentType() { }
 
   @Override
   public Vector2 parse(final StringReader reader) throws CommandSyntaxException {
-    final StringBuilder argumentBuilder = new StringBuilder();
-
-    argumentBuilder.append(reader.readUnquotedString());
-    argumentBuilder.append(' ');
-    reader.skipWhitespace();
-
-    argumentBuilder.append(reader.readUnquotedString());
-
-    final String argument = argumentBuilder.toString();
-    if (VEC2_PATTERN.matcher(argument).matches()) {
-      final StringReader argumentReader = new StringReader(argument);
-
-      final double x = argumentReader.readDouble();
-      argumentReader.skipWhitespace();
-
-      final double y = argumentReader.readDouble();
-
-      return Vector2.at(x, y);
-    }
-
-    throw INVALID_FORMAT_EXCEPTION.createWithContext(reader, argument);
+    final Coordinates2 coordinates = Coordinates2ArgumentType.read(reader, false);
+    return coordinates.resolve(Vector2.ZERO);
   }
 
   @Override
   public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
-    // TODO this, suggest a trailing whitespace until complete
-    return Suggestions.empty();
+    return CoordinateReader.suggest(builder, 2, false, false);
   }
 
   @Override
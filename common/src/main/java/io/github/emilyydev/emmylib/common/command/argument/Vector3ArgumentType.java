@@ -29,80 +29,75 @@ import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
-import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
-import io.github.emilyydev.emmylib.common.locale.ComponentMessage;
-import io.github.emilyydev.emmylib.common.locale.Translations;
+import io.github.emilyydev.emmylib.common.command.Positioned;
 import io.github.emilyydev.emmylib.common.util.container.Vector3;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.regex.Pattern;
-
-import static net.kyori.adventure.text.Component.text;
-import static net.kyori.adventure.text.Component.translatable;
 
+/**
+ * Parses absolute coordinates only.
+ *
+ * @see Coordinates3ArgumentType#relativeVec3Arg() to parse relative coordinates too.
+ */
 public class Vector3ArgumentType implements ArgumentType<Vector3> {
 
-  private static final DynamicCommandExceptionType INVALID_FORMAT_EXCEPTION = new DynamicCommandExceptionType(read -> {
-    return ComponentMessage.of(translatable(Translations.translatableKeyInvalidVector3Format(), text(String.valueOf(read))));
-  });
-
   private static final List<String> EXAMPLES = List.of("0.0 0.0 0.0", "1 2 3", "-1.65 1589 -9681.4");
 
-  private static final Pattern UNIT_PATTERN = Pattern.compile("-?\\d+(?:\\.\\d+)?");
-  private static final Pattern VEC3_PATTERN = Pattern.compile(UNIT_PATTERN.pattern() + ' '
-                                                              + UNIT_PATTERN.pattern() + ' '
-                                                              + UNIT_PATTERN.pattern());
-
+  private static final Vector3ArgumentType INSTANCE = new Vector3ArgumentType();
+
+  /**
+   * Gets the vector parsed by either a {@link Vector3ArgumentType} or a {@link Coordinates3ArgumentType},
+   * relative to the subject of the context if any coordinate is relative.
+   *
+   * @param context the context of the command.
+   * @param name    the name of the argument.
+   * @return the vector.
+   * @throws IllegalArgumentException if there is no such argument, or if there are relative
+   *                                  coordinates and the subject is not {@link Positioned}.
+   */
   public static Vector3 getVector3(final CommandContext<?> context, final String name) {
-    return context.getArgument(name, Vector3.class);
+    final Object argument = context.getArgument(name, Object.class);
+    if (argument instanceof Vector3) {
+      return (Vector3) argument;
+    }
+    if (!(argument instanceof Coordinates3)) {
+      throw new IllegalArgumentException("Argument '" + name + "' is defined as " + argument.getClass().getSimpleName() + ", not Vector3");
+    }
+
+    final Coordinates3 coordinates = (Coordinates3) argument;
+    if (coordinates.isAbsolute()) {
+      return coordinates.resolve(Vector3.ZERO, 0.0, 0.0);
+    }
+
+    final Object source = context.getSource();
+    if (!(source instanceof Positioned)) {
+      throw new IllegalArgumentException("Relative coordinates need a Positioned subject, got " + source);
+    }
+    return coordinates.resolve((Positioned) source);
   }
 
+  /**
+   * @return
+   */
   public static Vector3ArgumentType vec3Arg() {
-    return new Vector3ArgumentType();
+    return INSTANCE;
   }
 
   private Vector3ArgumentType() { }
 
   @Override
   public Vector3 parse(final StringReader reader) throws CommandSyntaxException {
-    final StringBuilder argumentBuilder = new StringBuilder();
-
-    argumentBuilder.append(reader.readUnquotedString());
-    argumentBuilder.append(' ');
-    reader.skipWhitespace();
-
-    argumentBuilder.append(reader.readUnquotedString());
-    argumentBuilder.append(' ');
-    reader.skipWhitespace();
-
-    argumentBuilder.append(reader.readUnquotedString());
-
-    final String argument = argumentBuilder.toString();
-    if (VEC3_PATTERN.matcher(argument).matches()) {
-      final StringReader argumentReader = new StringReader(argument);
-
-      final double x = argumentReader.readDouble();
-      argumentReader.skipWhitespace();
-
-      final double y = argumentReader.readDouble();
-      argumentReader.skipWhitespace();
-
-      final double z = argumentReader.readDouble();
-
-      return Vector3.at(x, y, z);
-    }
-
-    throw INVALID_FORMAT_EXCEPTION.createWithContext(reader, argument);
+    final Coordinates3 coordinates = Coordinates3ArgumentType.read(reader, false);
+    return coordinates.resolve(Vector3.ZERO, 0.0, 0.0);
   }
 
   @Override
   public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context, final SuggestionsBuilder builder) {
-    // TODO this, suggest a trailing whitespace until complete
-    return Suggestions.empty();
+    return CoordinateReader.suggest(builder, 3, false, false);
   }
 
   @Override
@@ -0,0 +1,174 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.locale;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.renderer.ComponentRenderer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sends a message to many audiences at once, rendering it once per locale rather than once per
+ * audience.
+ * <p>
+ * Audiences are grouped by the locale their {@link #localeResolver(Function) locale resolver} gives,
+ * and each group is sent the message rendered for its locale. Audiences without a known locale are
+ * sent the message as-is, to be rendered by the platform. Large groups can be sent from an executor,
+ * split in chunks.
+ */
+public final class Broadcaster {
+
+  private static final Broadcaster GLOBAL = new Broadcaster();
+
+  /**
+   * Gets the broadcaster used by the {@code broadcast} methods of {@link Message}, which can be
+   * configured as any other.
+   *
+   * @return
+   */
+  public static Broadcaster global() {
+    return GLOBAL;
+  }
+
+  /**
+   * Creates a broadcaster that doesn't know the locale of any audience, rendering messages with
+   * {@link CachingTranslationRenderer#global()} once a locale resolver is set.
+   *
+   * @return
+   */
+  public static Broadcaster broadcaster() {
+    return new Broadcaster();
+  }
+
+  private volatile Function<? super Audience, ? extends @Nullable Locale> localeResolver = audience -> null;
+  private volatile ComponentRenderer<Locale> renderer = CachingTranslationRenderer.global();
+  private volatile Executor executor;
+  private volatile int chunkSize = Integer.MAX_VALUE;
+
+  private Broadcaster() {
+  }
+
+  /**
+   * @param localeResolver gives the locale of an audience, or {@code null} if it is not known.
+   * @return this broadcaster.
+   */
+  public Broadcaster localeResolver(final @NotNull Function<? super Audience, ? extends @Nullable Locale> localeResolver) {
+    this.localeResolver = requireNonNull(localeResolver, "localeResolver");
+    return this;
+  }
+
+  /**
+   * @param renderer renders messages for a locale.
+   * @return this broadcaster.
+   */
+  public Broadcaster renderer(final @NotNull ComponentRenderer<Locale> renderer) {
+    this.renderer = requireNonNull(renderer, "renderer");
+    return this;
+  }
+
+  /**
+   * Sends messages to groups of audiences bigger than the given size from the given executor, in
+   * chunks of that size, or from the broadcasting thread if the executor is {@code null}.
+   *
+   * @param executor
+   * @param chunkSize
+   * @return this broadcaster.
+   * @throws IllegalArgumentException if the chunk size is not positive.
+   */
+  public Broadcaster parallel(final @Nullable Executor executor, final int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize);
+    }
+    this.executor = executor;
+    this.chunkSize = chunkSize;
+    return this;
+  }
+
+  /**
+   * Sends a message to the given audiences.
+   *
+   * @param message
+   * @param audiences
+   * @return a future completed once the message was sent to every audience.
+   */
+  public CompletableFuture<Void> broadcast(final @NotNull ComponentLike message, final @NotNull Iterable<? extends Audience> audiences) {
+    final Component component = requireNonNull(message, "message").asComponent();
+    requireNonNull(audiences, "audiences");
+    final Function<? super Audience, ? extends Locale> localeResolver = this.localeResolver;
+
+    final Map<Locale, List<Audience>> byLocale = new HashMap<>();
+    final List<Audience> unknownLocale = new ArrayList<>();
+    for (final Audience audience : audiences) {
+      final Locale locale = localeResolver.apply(audience);
+      if (locale == null) {
+        unknownLocale.add(audience);
+      } else {
+        byLocale.computeIfAbsent(locale, key -> new ArrayList<>()).add(audience);
+      }
+    }
+
+    final ComponentRenderer<Locale> renderer = this.renderer;
+    final List<CompletableFuture<Void>> sending = new ArrayList<>(0);
+    byLocale.forEach((locale, group) -> send(renderer.render(component, locale), group, sending));
+    send(component, unknownLocale, sending);
+    return sending.isEmpty()
+           ? CompletableFuture.completedFuture(null)
+           : CompletableFuture.allOf(sending.toArray(new CompletableFuture<?>[0]));
+  }
+
+  private void send(final Component component, final List<Audience> audiences, final List<CompletableFuture<Void>> sending) {
+    final Executor executor = this.executor;
+    final int chunkSize = this.chunkSize;
+    if (executor == null || audiences.size() <= chunkSize) {
+      for (final Audience audience : audiences) {
+        audience.sendMessage(component);
+      }
+      return;
+    }
+
+    for (int start = 0; start < audiences.size(); start += chunkSize) {
+      final List<Audience> chunk = audiences.subList(start, Math.min(start + chunkSize, audiences.size()));
+      sending.add(CompletableFuture.runAsync(() -> {
+        for (final Audience audience : chunk) {
+          audience.sendMessage(component);
+        }
+      }, executor));
+    }
+  }
+}
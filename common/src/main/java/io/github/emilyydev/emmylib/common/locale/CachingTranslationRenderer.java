@@ -0,0 +1,218 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.locale;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.renderer.ComponentRenderer;
+import net.kyori.adventure.text.renderer.TranslatableComponentRenderer;
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.Translator;
+import org.jetbrains.annotations.NotNull;
+
+import java.text.AttributedCharacterIterator;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Renders translatable components like {@link GlobalTranslator#render(Component, Locale)} does, but
+ * remembers what it rendered.
+ * <p>
+ * Each translation is compiled once per locale into an immutable template of text and argument
+ * slots, rather than running its shared (and not thread-safe) {@link MessageFormat} on every render,
+ * and rendered components are cached per component (and so per key and argument values) and locale,
+ * up to a maximum amount. Cache hits don't lock.
+ * <p>
+ * Translations changed after being rendered are only picked up after {@link #invalidateAll()}.
+ */
+public final class CachingTranslationRenderer implements ComponentRenderer<Locale> {
+
+  private static final long DEFAULT_MAXIMUM_SIZE = 4096L;
+  private static final CachingTranslationRenderer GLOBAL = new CachingTranslationRenderer(GlobalTranslator.get(), DEFAULT_MAXIMUM_SIZE);
+
+  /**
+   * Gets the renderer of the translations of the {@link GlobalTranslator}.
+   *
+   * @return
+   */
+  public static CachingTranslationRenderer global() {
+    return GLOBAL;
+  }
+
+  /**
+   * @param source      the translations to render.
+   * @param maximumSize how many rendered components to keep.
+   * @return
+   */
+  public static CachingTranslationRenderer create(final @NotNull Translator source, final long maximumSize) {
+    return new CachingTranslationRenderer(requireNonNull(source, "source"), maximumSize);
+  }
+
+  private final TemplateRenderer renderer;
+  private final Cache<LocalizedKey, Component> rendered;
+
+  private CachingTranslationRenderer(final Translator source, final long maximumSize) {
+    this.renderer = new TemplateRenderer(source, maximumSize);
+    this.rendered = Caffeine.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  @Override
+  public @NotNull Component render(final @NotNull Component component, final @NotNull Locale locale) {
+    requireNonNull(component, "component");
+    requireNonNull(locale, "locale");
+    return this.rendered.get(new LocalizedKey(component, locale), key -> this.renderer.render((Component) key.value, key.locale));
+  }
+
+  /**
+   * Forgets every compiled translation and rendered component, so changed translations are picked up.
+   */
+  public void invalidateAll() {
+    this.renderer.templates.invalidateAll();
+    this.rendered.invalidateAll();
+  }
+
+  // only the outermost component is cached, the arguments and children are rendered by this one
+  private static final class TemplateRenderer extends TranslatableComponentRenderer<Locale> {
+
+    private final Translator source;
+    private final Cache<LocalizedKey, Template> templates;
+
+    TemplateRenderer(final Translator source, final long maximumSize) {
+      this.source = source;
+      this.templates = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @Override
+    protected MessageFormat translate(final @NotNull String key, final @NotNull Locale locale) {
+      return this.source.translate(key, locale);
+    }
+
+    @Override
+    protected @NotNull Component renderTranslatable(final @NotNull TranslatableComponent component, final @NotNull Locale locale) {
+      final Template template = this.templates.get(new LocalizedKey(component.key(), locale), key -> Template.compile(translate(component.key(), locale)));
+      final List<Component> args = component.args();
+      // missing arguments are rare enough to leave them to the format
+      if (template == Template.UNTRANSLATED || !args.isEmpty() && args.size() < template.arguments) {
+        return super.renderTranslatable(component, locale);
+      }
+
+      final TextComponent.Builder builder = Component.text();
+      mergeStyle(component, builder, locale);
+      if (args.isEmpty()) {
+        builder.content(template.withoutArguments);
+      } else {
+        for (final Object part : template.parts) {
+          if (part instanceof String) {
+            builder.append(Component.text((String) part));
+          } else {
+            builder.append(render(args.get((Integer) part), locale));
+          }
+        }
+      }
+      return optionallyRenderChildrenAppendAndBuild(component.children(), builder, locale);
+    }
+  }
+
+  private static final class Template {
+
+    static final Template UNTRANSLATED = new Template(new Object[0], 0, "");
+
+    // strings and argument indexes
+    final Object[] parts;
+    final int arguments;
+    // how the format renders without arguments
+    final String withoutArguments;
+
+    private Template(final Object[] parts, final int arguments, final String withoutArguments) {
+      this.parts = parts;
+      this.arguments = arguments;
+      this.withoutArguments = withoutArguments;
+    }
+
+    static Template compile(final MessageFormat format) {
+      if (format == null) {
+        return UNTRANSLATED;
+      }
+
+      final List<Object> parts = new ArrayList<>();
+      final int arguments;
+      final String withoutArguments;
+      // formats are shared with every other renderer
+      synchronized (format) {
+        arguments = format.getFormatsByArgumentIndex().length;
+        final Object[] nulls = new Object[arguments];
+        final String text = format.format(nulls, new StringBuffer(), null).toString();
+        final AttributedCharacterIterator iterator = format.formatToCharacterIterator(nulls);
+        while (iterator.getIndex() < iterator.getEndIndex()) {
+          final int end = iterator.getRunLimit();
+          final Integer index = (Integer) iterator.getAttribute(MessageFormat.Field.ARGUMENT);
+          parts.add(index != null ? index : text.substring(iterator.getIndex(), end));
+          iterator.setIndex(end);
+        }
+        withoutArguments = format.format(null, new StringBuffer(), null).toString();
+      }
+      return new Template(parts.toArray(), arguments, withoutArguments);
+    }
+  }
+
+  // a component or a translation key, and a locale
+  private static final class LocalizedKey {
+
+    final Object value;
+    final Locale locale;
+    private final int hashCode;
+
+    LocalizedKey(final Object value, final Locale locale) {
+      this.value = value;
+      this.locale = locale;
+      this.hashCode = 31 * value.hashCode() + locale.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof LocalizedKey)) {
+        return false;
+      }
+      final LocalizedKey that = (LocalizedKey) other;
+      return this.hashCode == that.hashCode && this.value.equals(that.value) && this.locale.equals(that.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+}
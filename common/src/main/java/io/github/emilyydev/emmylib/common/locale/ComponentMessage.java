@@ -25,6 +25,8 @@
 
 package io.github.emilyydev.emmylib.common.locale;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.gson.JsonElement;
 import com.mojang.brigadier.Message;
 import net.kyori.adventure.text.Component;
@@ -33,14 +35,30 @@ import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainComponentSerializer;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A component usable as a brigadier {@link Message}.
+ * <p>
+ * Its plain and JSON forms are only computed when first asked for, since most messages are only
+ * ever sent as a component.
+ */
 public class ComponentMessage implements ComponentLike, Message {
 
+  private static final long MAXIMUM_CACHED_MESSAGES = 1024L;
+
   private static final ComponentMessage EMPTY = new ComponentMessage(Component.empty());
   private static final ComponentMessage NEWLINE = new ComponentMessage(Component.newline());
   private static final ComponentMessage SPACE = new ComponentMessage(Component.space());
 
+  private static final Cache<Component, ComponentMessage> CACHED =
+      Caffeine.newBuilder()
+              .maximumSize(MAXIMUM_CACHED_MESSAGES)
+              .build();
+
   public static ComponentMessage empty() {
     return EMPTY;
   }
@@ -55,7 +73,25 @@ public class ComponentMessage implements ComponentLike, Message {
 
   public static ComponentMessage of(final @NotNull ComponentLike like) {
     final Component component = requireNonNull(like, "component").asComponent();
+    final ComponentMessage constant = constant(component);
+    return constant != null ? constant : new ComponentMessage(component);
+  }
+
+  /**
+   * Gets a message shared by every caller passing an equal component, so the plain and JSON forms of
+   * messages that are sent over and over are only computed once. Only a bounded amount of messages
+   * are kept, use {@link #of(ComponentLike)} for one-off messages.
+   *
+   * @param like
+   * @return
+   */
+  public static ComponentMessage cached(final @NotNull ComponentLike like) {
+    final Component component = requireNonNull(like, "component").asComponent();
+    final ComponentMessage constant = constant(component);
+    return constant != null ? constant : CACHED.get(component, ComponentMessage::new);
+  }
 
+  private static ComponentMessage constant(final Component component) {
     if (component == Component.empty()) {
       return EMPTY;
     } else if (component == Component.newline()) {
@@ -63,18 +99,17 @@ public class ComponentMessage implements ComponentLike, Message {
     } else if (component == Component.space()) {
       return SPACE;
     }
-
-    return new ComponentMessage(component);
+    return null;
   }
 
   private final Component component;
-  private final String plain;
-  private final JsonElement asJson;
+  // computed on demand, threads racing to do so compute equal values and any of them is kept
+  private volatile String plain;
+  private volatile JsonElement asJson;
+  private volatile byte[] jsonBytes;
 
   private ComponentMessage(final Component component) {
     this.component = component;
-    this.plain = PlainComponentSerializer.plain().serialize(this.component);
-    this.asJson = GsonComponentSerializer.gson().serializeToTree(this.component);
   }
 
   @Override
@@ -84,10 +119,32 @@ public class ComponentMessage implements ComponentLike, Message {
 
   @Override
   public String getString() {
-    return this.plain;
+    String plain = this.plain;
+    if (plain == null) {
+      this.plain = plain = PlainComponentSerializer.plain().serialize(this.component);
+    }
+    return plain;
   }
 
   public @NotNull JsonElement asJson() {
-    return this.asJson;
+    JsonElement asJson = this.asJson;
+    if (asJson == null) {
+      this.asJson = asJson = GsonComponentSerializer.gson().serializeToTree(this.component);
+    }
+    return asJson;
+  }
+
+  /**
+   * Gets the JSON form of the message encoded in UTF-8, ready to be written to the network. It is
+   * kept along with the message once asked for.
+   *
+   * @return a read-only view of the encoded JSON.
+   */
+  public @NotNull ByteBuffer asJsonBytes() {
+    byte[] jsonBytes = this.jsonBytes;
+    if (jsonBytes == null) {
+      this.jsonBytes = jsonBytes = GsonComponentSerializer.gson().serialize(this.component).getBytes(StandardCharsets.UTF_8);
+    }
+    return ByteBuffer.wrap(jsonBytes).asReadOnlyBuffer();
   }
 }
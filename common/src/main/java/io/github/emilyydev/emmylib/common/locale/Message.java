@@ -28,6 +28,14 @@ package io.github.emilyydev.emmylib.common.locale;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.ComponentLike;
 
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Messages built from their arguments.
+ * <p>
+ * {@code broadcast} builds a message once for many audiences, and renders it once per locale with
+ * the {@link Broadcaster#global() global broadcaster}.
+ */
 public interface Message {
 
   @FunctionalInterface
@@ -38,6 +46,10 @@ public interface Message {
     default void send(final Audience audience) {
       audience.sendMessage(build());
     }
+
+    default CompletableFuture<Void> broadcast(final Iterable<? extends Audience> audiences) {
+      return Broadcaster.global().broadcast(build(), audiences);
+    }
   }
 
   @FunctionalInterface
@@ -48,6 +60,10 @@ public interface Message {
     default void send(final Audience audience, final T t) {
       audience.sendMessage(build(t));
     }
+
+    default CompletableFuture<Void> broadcast(final Iterable<? extends Audience> audiences, final T t) {
+      return Broadcaster.global().broadcast(build(t), audiences);
+    }
   }
 
   @FunctionalInterface
@@ -58,6 +74,10 @@ public interface Message {
     default void send(final Audience audience, final T t, final U u) {
       audience.sendMessage(build(t, u));
     }
+
+    default CompletableFuture<Void> broadcast(final Iterable<? extends Audience> audiences, final T t, final U u) {
+      return Broadcaster.global().broadcast(build(t, u), audiences);
+    }
   }
 
   @FunctionalInterface
@@ -68,6 +88,10 @@ public interface Message {
     default void send(final Audience audience, final T t, final U u, final V v) {
       audience.sendMessage(build(t, u, v));
     }
+
+    default CompletableFuture<Void> broadcast(final Iterable<? extends Audience> audiences, final T t, final U u, final V v) {
+      return Broadcaster.global().broadcast(build(t, u, v), audiences);
+    }
   }
 
   @FunctionalInterface
@@ -78,6 +102,10 @@ public interface Message {
     default void send(final Audience audience, final T t, final U u, final V v, final W w) {
       audience.sendMessage(build(t, u, v, w));
     }
+
+    default CompletableFuture<Void> broadcast(final Iterable<? extends Audience> audiences, final T t, final U u, final V v, final W w) {
+      return Broadcaster.global().broadcast(build(t, u, v, w), audiences);
+    }
   }
 
   @FunctionalInterface
@@ -88,5 +116,9 @@ public interface Message {
     default void send(final Audience audience, final T t, final U u, final V v, final W w, final X x) {
       audience.sendMessage(build(t, u, v, w, x));
     }
+
+    default CompletableFuture<Void> broadcast(final Iterable<? extends Audience> audiences, final T t, final U u, final V v, final W w, final X x) {
+      return Broadcaster.global().broadcast(build(t, u, v, w, x), audiences);
+    }
   }
 }
@@ -0,0 +1,221 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.locale;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A message pattern compiled once into the {@link Message} interfaces, such as
+ * {@code "{0} gave {2} to {1}"}.
+ * <p>
+ * Patterns follow the syntax of {@link java.text.MessageFormat}, without format types: arguments are
+ * {@code {index}}, single quotes quote text ({@code '{'}) and two of them are a single quote. The
+ * text between arguments is turned into components when compiling, so building a message only
+ * creates the components of its arguments. Arguments that are {@link ComponentLike} are appended
+ * as-is, anything else as its string value.
+ */
+public final class MessageTemplate {
+
+  /**
+   * @param pattern
+   * @return
+   * @throws IllegalArgumentException if the pattern is malformed.
+   */
+  public static MessageTemplate compile(final @NotNull String pattern) {
+    return compile(pattern, Style.empty());
+  }
+
+  /**
+   * @param pattern
+   * @param style   the style of the whole message.
+   * @return
+   * @throws IllegalArgumentException if the pattern is malformed.
+   */
+  public static MessageTemplate compile(final @NotNull String pattern, final @NotNull Style style) {
+    requireNonNull(pattern, "pattern");
+    requireNonNull(style, "style");
+
+    final List<Object> parts = new ArrayList<>();
+    final StringBuilder text = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < pattern.length(); ++i) {
+      final char c = pattern.charAt(i);
+      if (c == '\'') {
+        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+          text.append('\'');
+          ++i;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (c == '{' && !quoted) {
+        final int end = pattern.indexOf('}', i + 1);
+        if (end == -1) {
+          throw new IllegalArgumentException("Unmatched braces in pattern " + pattern);
+        }
+        if (text.length() > 0) {
+          parts.add(text.toString());
+          text.setLength(0);
+        }
+        parts.add(argumentIndex(pattern, i + 1, end));
+        i = end;
+      } else {
+        text.append(c);
+      }
+    }
+    if (text.length() > 0) {
+      parts.add(text.toString());
+    }
+    return new MessageTemplate(parts, style);
+  }
+
+  private static int argumentIndex(final String pattern, final int start, final int end) {
+    if (start == end) {
+      throw new IllegalArgumentException("Missing argument index at " + start + " in pattern " + pattern);
+    }
+    int index = 0;
+    for (int i = start; i < end; ++i) {
+      final char c = pattern.charAt(i);
+      if (c < '0' || c > '9' || index > 9) {
+        throw new IllegalArgumentException("Invalid argument index " + pattern.substring(start, end) + " in pattern " + pattern);
+      }
+      index = index * 10 + (c - '0');
+    }
+    return index;
+  }
+
+  // the text before the first argument, the content of the root component
+  private final String content;
+  private final Style style;
+  // components of the text between arguments and argument indexes, after the leading text
+  private final Object[] parts;
+  private final int arguments;
+  // the whole message, if it has no arguments
+  private final Component constant;
+
+  private MessageTemplate(final List<Object> parts, final Style style) {
+    this.style = style;
+    final boolean leadingText = !parts.isEmpty() && parts.get(0) instanceof String;
+    this.content = leadingText ? (String) parts.get(0) : "";
+
+    final List<Object> rest = parts.subList(leadingText ? 1 : 0, parts.size());
+    this.parts = new Object[rest.size()];
+    int arguments = 0;
+    for (int i = 0; i < this.parts.length; ++i) {
+      final Object part = rest.get(i);
+      if (part instanceof String) {
+        this.parts[i] = Component.text((String) part);
+      } else {
+        this.parts[i] = part;
+        arguments = Math.max(arguments, (Integer) part + 1);
+      }
+    }
+    this.arguments = arguments;
+    this.constant = arguments == 0 ? build(null, null, null, null, null) : null;
+  }
+
+  /**
+   * @return how many arguments the pattern uses, one more than its greatest argument index.
+   */
+  public int arguments() {
+    return this.arguments;
+  }
+
+  public Message.Args0 args0() {
+    checkArguments(0);
+    return () -> this.constant;
+  }
+
+  public <T> Message.Args1<T> args1() {
+    checkArguments(1);
+    return t -> build(t, null, null, null, null);
+  }
+
+  public <T, U> Message.Args2<T, U> args2() {
+    checkArguments(2);
+    return (t, u) -> build(t, u, null, null, null);
+  }
+
+  public <T, U, V> Message.Args3<T, U, V> args3() {
+    checkArguments(3);
+    return (t, u, v) -> build(t, u, v, null, null);
+  }
+
+  public <T, U, V, W> Message.Args4<T, U, V, W> args4() {
+    checkArguments(4);
+    return (t, u, v, w) -> build(t, u, v, w, null);
+  }
+
+  public <T, U, V, W, X> Message.Args5<T, U, V, W, X> args5() {
+    checkArguments(5);
+    return (t, u, v, w, x) -> build(t, u, v, w, x);
+  }
+
+  private void checkArguments(final int arguments) {
+    if (this.arguments > arguments) {
+      throw new IllegalStateException("The pattern uses " + this.arguments + " arguments, can't build it from " + arguments);
+    }
+  }
+
+  private Component build(final Object a0, final Object a1, final Object a2, final Object a3, final Object a4) {
+    final TextComponent.Builder builder = Component.text().content(this.content).style(this.style);
+    for (final Object part : this.parts) {
+      if (part instanceof Component) {
+        builder.append((Component) part);
+        continue;
+      }
+
+      final Object argument;
+      switch ((Integer) part) {
+        case 0:
+          argument = a0;
+          break;
+        case 1:
+          argument = a1;
+          break;
+        case 2:
+          argument = a2;
+          break;
+        case 3:
+          argument = a3;
+          break;
+        default:
+          argument = a4;
+          break;
+      }
+      builder.append(argument instanceof ComponentLike ? ((ComponentLike) argument).asComponent() : Component.text(String.valueOf(argument)));
+    }
+    return builder.build();
+  }
+}
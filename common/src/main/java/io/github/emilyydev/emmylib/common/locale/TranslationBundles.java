@@ -0,0 +1,392 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.locale;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Types;
+import io.github.emilyydev.emmylib.common.util.MoshiProvider;
+import io.github.emilyydev.emmylib.common.util.function.Throwing;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.TranslationRegistry;
+import net.kyori.adventure.translation.Translator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Translations loaded from a folder of bundle files, one or more per locale, named after the locale
+ * they translate to: {@code en_US.properties}, {@code es.yml}, {@code pt_BR.json}. Keys of nested
+ * YAML and JSON sections are joined with dots.
+ * <p>
+ * Bundles are loaded in parallel and published all at once, and a single locale can be reloaded
+ * without touching the others. Lookups fall back to the language of the locale and then to the
+ * default locale, like a {@link TranslationRegistry} does. Add it to the {@link GlobalTranslator} to
+ * have its translations rendered.
+ */
+public final class TranslationBundles implements Translator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TranslationBundles.class);
+
+  private static final Type MAP_TYPE = Types.newParameterizedType(Map.class, String.class, Object.class);
+  private static final JsonAdapter<Map<String, Object>> MAP_JSON_ADAPTER = MoshiProvider.get().adapter(MAP_TYPE);
+  private static final ThreadLocal<Yaml> YAML_LOADER = ThreadLocal.withInitial(() -> {
+    final var loaderOptions = new LoaderOptions();
+    loaderOptions.setAllowDuplicateKeys(false);
+    return new Yaml(loaderOptions);
+  });
+
+  /**
+   * @param name               the name of the translation source.
+   * @param folder             the folder of the bundle files.
+   * @param defaultLocale      the locale to fall back to.
+   * @param escapeSingleQuotes whether single quotes in the translations are taken literally, rather
+   *                           than as the quotes of {@link MessageFormat} patterns.
+   * @return
+   */
+  public static TranslationBundles create(final @NotNull Key name, final @NotNull Path folder, final @NotNull Locale defaultLocale,
+                                          final boolean escapeSingleQuotes) {
+    return create(name, folder, defaultLocale, escapeSingleQuotes, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param name               the name of the translation source.
+   * @param folder             the folder of the bundle files.
+   * @param defaultLocale      the locale to fall back to.
+   * @param escapeSingleQuotes whether single quotes in the translations are taken literally, rather
+   *                           than as the quotes of {@link MessageFormat} patterns.
+   * @param executor           the executor the bundle files are read with.
+   * @return
+   */
+  public static TranslationBundles create(final @NotNull Key name, final @NotNull Path folder, final @NotNull Locale defaultLocale,
+                                          final boolean escapeSingleQuotes, final @NotNull Executor executor) {
+    return new TranslationBundles(requireNonNull(name, "name"), requireNonNull(folder, "folder"),
+                                  requireNonNull(defaultLocale, "defaultLocale"), escapeSingleQuotes,
+                                  requireNonNull(executor, "executor"));
+  }
+
+  private final Key name;
+  private final Path folder;
+  private final Locale defaultLocale;
+  private final boolean escapeSingleQuotes;
+  private final Executor executor;
+  // held while listing, reading and publishing, so loads publish in the order they read the files
+  private final Object reloadLock = new Object();
+  // replaced as a whole, never modified
+  private volatile Map<Locale, Map<String, MessageFormat>> bundles = Map.of();
+
+  private TranslationBundles(final Key name, final Path folder, final Locale defaultLocale, final boolean escapeSingleQuotes,
+                             final Executor executor) {
+    this.name = name;
+    this.folder = folder;
+    this.defaultLocale = defaultLocale;
+    this.escapeSingleQuotes = escapeSingleQuotes;
+    this.executor = executor;
+  }
+
+  /**
+   * Loads every bundle in the folder, replacing all of the loaded translations once every bundle has
+   * been read. Waits for any other load to finish first.
+   *
+   * @return what was loaded.
+   * @throws IOException if a bundle can't be read, in which case the loaded translations are left
+   *                     as they were.
+   */
+  public LoadReport loadAll() throws IOException {
+    final long start = System.nanoTime();
+    final Map<Locale, Map<String, MessageFormat>> bundles;
+    synchronized (this.reloadLock) {
+      final Map<Locale, List<Path>> files = listFiles();
+      final Map<Locale, CompletableFuture<Map<String, MessageFormat>>> loading = new HashMap<>(files.size());
+      files.forEach((locale, paths) -> {
+        loading.put(locale, CompletableFuture.supplyAsync(Throwing.Supplier.sneaky(() -> read(locale, paths)), this.executor));
+      });
+
+      bundles = new HashMap<>(loading.size());
+      for (final Map.Entry<Locale, CompletableFuture<Map<String, MessageFormat>>> entry : loading.entrySet()) {
+        bundles.put(entry.getKey(), join(entry.getValue()));
+      }
+      this.bundles = Map.copyOf(bundles);
+    }
+    return published(bundles, start);
+  }
+
+  /**
+   * Loads the bundles of a locale, replacing its loaded translations and leaving the other locales
+   * alone. The translations of the locale are dropped if it has no bundles anymore. Waits for any
+   * other load to finish first.
+   *
+   * @param locale
+   * @return what was loaded.
+   * @throws IOException if a bundle can't be read, in which case the loaded translations are left
+   *                     as they were.
+   */
+  public LoadReport reload(final @NotNull Locale locale) throws IOException {
+    requireNonNull(locale, "locale");
+    final long start = System.nanoTime();
+    final Map<String, MessageFormat> bundle;
+    synchronized (this.reloadLock) {
+      final List<Path> paths = listFiles().get(locale);
+      bundle = paths == null ? null : read(locale, paths);
+
+      final Map<Locale, Map<String, MessageFormat>> bundles = new HashMap<>(this.bundles);
+      if (bundle == null) {
+        bundles.remove(locale);
+      } else {
+        bundles.put(locale, bundle);
+      }
+      this.bundles = Map.copyOf(bundles);
+    }
+    return published(bundle == null ? Map.of() : Map.of(locale, bundle), start);
+  }
+
+  /**
+   * @return the locales with loaded translations.
+   */
+  public Set<Locale> locales() {
+    return this.bundles.keySet();
+  }
+
+  @Override
+  public @NotNull Key name() {
+    return this.name;
+  }
+
+  @Override
+  public @Nullable MessageFormat translate(final @NotNull String key, final @NotNull Locale locale) {
+    final Map<Locale, Map<String, MessageFormat>> bundles = this.bundles;
+    MessageFormat format = translate(bundles, key, locale);
+    if (format == null && !locale.getCountry().isEmpty()) {
+      format = translate(bundles, key, new Locale(locale.getLanguage()));
+    }
+    if (format == null) {
+      format = translate(bundles, key, this.defaultLocale);
+    }
+    return format;
+  }
+
+  private static MessageFormat translate(final Map<Locale, Map<String, MessageFormat>> bundles, final String key, final Locale locale) {
+    final Map<String, MessageFormat> bundle = bundles.get(locale);
+    return bundle == null ? null : bundle.get(key);
+  }
+
+  private LoadReport published(final Map<Locale, Map<String, MessageFormat>> bundles, final long start) {
+    // rendered translations may be stale now
+    CachingTranslationRenderer.global().invalidateAll();
+
+    final LoadReport report = new LoadReport(bundles.keySet(), bundles.values().stream().mapToInt(Map::size).sum(),
+                                             Duration.ofNanos(System.nanoTime() - start));
+    LOGGER.info("Loaded {} translations for {} locales from {} in {} ms", report.translations(), report.locales().size(),
+                this.folder, report.elapsed().toMillis());
+    return report;
+  }
+
+  private Map<Locale, List<Path>> listFiles() throws IOException {
+    if (Files.notExists(this.folder)) {
+      return Map.of();
+    }
+
+    final Map<Locale, List<Path>> files = new HashMap<>();
+    try (final Stream<Path> paths = Files.list(this.folder)) {
+      for (final Path path : paths.sorted().collect(Collectors.toList())) {
+        final String fileName = path.getFileName().toString();
+        final int extension = fileName.lastIndexOf('.');
+        if (extension <= 0 || Format.of(fileName.substring(extension + 1)) == null || !Files.isRegularFile(path)) {
+          continue;
+        }
+
+        final Locale locale = Translator.parseLocale(fileName.substring(0, extension));
+        if (locale == null) {
+          LOGGER.warn("Ignoring translation bundle {}, its name is not a locale", path);
+          continue;
+        }
+        files.computeIfAbsent(locale, key -> new ArrayList<>(1)).add(path);
+      }
+    }
+    return files;
+  }
+
+  private Map<String, MessageFormat> read(final Locale locale, final List<Path> paths) throws IOException {
+    final Map<String, MessageFormat> bundle = new HashMap<>();
+    for (final Path path : paths) {
+      final String fileName = path.getFileName().toString();
+      final Format format = requireNonNull(Format.of(fileName.substring(fileName.lastIndexOf('.') + 1)), "format");
+      final Map<String, String> patterns = new TreeMap<>();
+      format.read(path, patterns);
+
+      patterns.forEach((key, pattern) -> {
+        try {
+          final String escaped = this.escapeSingleQuotes ? TranslationRegistry.SINGLE_QUOTE_PATTERN.matcher(pattern).replaceAll("''") : pattern;
+          if (bundle.put(key, new MessageFormat(escaped, locale)) != null) {
+            LOGGER.warn("Translation {} of bundle {} overrides the one of another bundle", key, path);
+          }
+        } catch (final IllegalArgumentException exception) {
+          LOGGER.warn("Ignoring translation {} of bundle {}: {}", key, path, exception.getMessage());
+        }
+      });
+    }
+    return Map.copyOf(bundle);
+  }
+
+  private static <T> T join(final CompletableFuture<T> future) throws IOException {
+    try {
+      return future.join();
+    } catch (final CompletionException exception) {
+      final Throwable cause = exception.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      throw exception;
+    }
+  }
+
+  private enum Format {
+    PROPERTIES {
+      @Override
+      void read(final Path path, final Map<String, String> patterns) throws IOException {
+        final Properties properties = new Properties();
+        try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+          properties.load(reader);
+        }
+        for (final String key : properties.stringPropertyNames()) {
+          patterns.put(key, properties.getProperty(key));
+        }
+      }
+    },
+    YAML {
+      @Override
+      void read(final Path path, final Map<String, String> patterns) throws IOException {
+        final Map<String, Object> map;
+        try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+          map = YAML_LOADER.get().load(reader);
+        }
+        flatten("", map != null ? map : Map.of(), patterns);
+      }
+    },
+    JSON {
+      @Override
+      void read(final Path path, final Map<String, String> patterns) throws IOException {
+        final Map<String, Object> map = MAP_JSON_ADAPTER.fromJson(Files.readString(path));
+        flatten("", map != null ? map : Map.of(), patterns);
+      }
+    };
+
+    static Format of(final String extension) {
+      switch (extension) {
+        case "properties":
+          return PROPERTIES;
+        case "yml":
+        case "yaml":
+          return YAML;
+        case "json":
+          return JSON;
+        default:
+          return null;
+      }
+    }
+
+    abstract void read(Path path, Map<String, String> patterns) throws IOException;
+
+    // nested sections are joined with dots, and lists are joined as lines
+    private static void flatten(final String prefix, final Map<?, ?> map, final Map<String, String> patterns) {
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        final String key = prefix + entry.getKey();
+        final Object value = entry.getValue();
+        if (value instanceof Map) {
+          flatten(key + '.', (Map<?, ?>) value, patterns);
+        } else if (value instanceof List) {
+          patterns.put(key, ((List<?>) value).stream().map(String::valueOf).collect(Collectors.joining("\n")));
+        } else if (value != null) {
+          patterns.put(key, String.valueOf(value));
+        }
+      }
+    }
+  }
+
+  /**
+   * What a load of translation bundles loaded, and how long it took.
+   */
+  public static final class LoadReport {
+
+    private final Set<Locale> locales;
+    private final int translations;
+    private final Duration elapsed;
+
+    LoadReport(final Set<Locale> locales, final int translations, final Duration elapsed) {
+      this.locales = Set.copyOf(locales);
+      this.translations = translations;
+      this.elapsed = elapsed;
+    }
+
+    public Set<Locale> locales() {
+      return this.locales;
+    }
+
+    public int translations() {
+      return this.translations;
+    }
+
+    public Duration elapsed() {
+      return this.elapsed;
+    }
+
+    @Override
+    public String toString() {
+      return "LoadReport(locales=" + this.locales + ", translations=" + this.translations + ", elapsed=" + this.elapsed + ')';
+    }
+  }
+}
@@ -88,6 +88,71 @@ public final class Translations {
       register(SEPARATOR.join(TRANSLATION_PREFIX, "command", "argument", "exception", "InvalidVector3"),
                pattern("Invalid input format for 3-axis vector: must be ''x y z'', got ''{0}''"));
 
+  // io.github.emilyydev.emmylib.translation.command.argument.exception.UnknownProfile
+  private static final String TRANSLATABLE_KEY_UNKNOWN_PROFILE =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "command", "argument", "exception", "UnknownProfile"),
+               pattern("Unknown player {0}"));
+
+  // io.github.emilyydev.emmylib.translation.command.argument.exception.EmptyRange
+  private static final String TRANSLATABLE_KEY_EMPTY_RANGE =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "command", "argument", "exception", "EmptyRange"),
+               pattern("Expected a value or a range of values"));
+
+  // io.github.emilyydev.emmylib.translation.command.argument.exception.RangeSwapped
+  private static final String TRANSLATABLE_KEY_RANGE_SWAPPED =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "command", "argument", "exception", "RangeSwapped"),
+               pattern("Minimum {0} must not be greater than maximum {1}"));
+
+  // io.github.emilyydev.emmylib.translation.command.argument.exception.ListTooSmall
+  private static final String TRANSLATABLE_KEY_LIST_TOO_SMALL =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "command", "argument", "exception", "ListTooSmall"),
+               pattern("Expected at least {0} values, found {1}"));
+
+  // io.github.emilyydev.emmylib.translation.command.argument.exception.ListTooBig
+  private static final String TRANSLATABLE_KEY_LIST_TOO_BIG =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "command", "argument", "exception", "ListTooBig"),
+               pattern("Expected at most {0} values, found {1}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Years
+  private static final String TRANSLATABLE_KEY_DURATION_YEARS =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Years"),
+               pattern("{0,choice,1#year|1<years}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Months
+  private static final String TRANSLATABLE_KEY_DURATION_MONTHS =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Months"),
+               pattern("{0,choice,1#month|1<months}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Weeks
+  private static final String TRANSLATABLE_KEY_DURATION_WEEKS =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Weeks"),
+               pattern("{0,choice,1#week|1<weeks}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Days
+  private static final String TRANSLATABLE_KEY_DURATION_DAYS =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Days"),
+               pattern("{0,choice,1#day|1<days}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Hours
+  private static final String TRANSLATABLE_KEY_DURATION_HOURS =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Hours"),
+               pattern("{0,choice,1#hour|1<hours}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Minutes
+  private static final String TRANSLATABLE_KEY_DURATION_MINUTES =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Minutes"),
+               pattern("{0,choice,1#minute|1<minutes}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Seconds
+  private static final String TRANSLATABLE_KEY_DURATION_SECONDS =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Seconds"),
+               pattern("{0,choice,1#second|1<seconds}"));
+
+  // io.github.emilyydev.emmylib.translation.duration.Separator
+  private static final String TRANSLATABLE_KEY_DURATION_SEPARATOR =
+      register(SEPARATOR.join(TRANSLATION_PREFIX, "duration", "Separator"),
+               pattern(", "));
+
   /* ************************************** */
   /* ************************************** */
   /* ************************************** */
@@ -134,6 +199,58 @@ public final class Translations {
     return TRANSLATABLE_KEY_INVALID_VECTOR_3_FORMAT;
   }
 
+  public static String translatableKeyUnknownProfile() {
+    return TRANSLATABLE_KEY_UNKNOWN_PROFILE;
+  }
+
+  public static String translatableKeyEmptyRange() {
+    return TRANSLATABLE_KEY_EMPTY_RANGE;
+  }
+
+  public static String translatableKeyRangeSwapped() {
+    return TRANSLATABLE_KEY_RANGE_SWAPPED;
+  }
+
+  public static String translatableKeyListTooSmall() {
+    return TRANSLATABLE_KEY_LIST_TOO_SMALL;
+  }
+
+  public static String translatableKeyListTooBig() {
+    return TRANSLATABLE_KEY_LIST_TOO_BIG;
+  }
+
+  public static String translatableKeyDurationYears() {
+    return TRANSLATABLE_KEY_DURATION_YEARS;
+  }
+
+  public static String translatableKeyDurationMonths() {
+    return TRANSLATABLE_KEY_DURATION_MONTHS;
+  }
+
+  public static String translatableKeyDurationWeeks() {
+    return TRANSLATABLE_KEY_DURATION_WEEKS;
+  }
+
+  public static String translatableKeyDurationDays() {
+    return TRANSLATABLE_KEY_DURATION_DAYS;
+  }
+
+  public static String translatableKeyDurationHours() {
+    return TRANSLATABLE_KEY_DURATION_HOURS;
+  }
+
+  public static String translatableKeyDurationMinutes() {
+    return TRANSLATABLE_KEY_DURATION_MINUTES;
+  }
+
+  public static String translatableKeyDurationSeconds() {
+    return TRANSLATABLE_KEY_DURATION_SECONDS;
+  }
+
+  public static String translatableKeyDurationSeparator() {
+    return TRANSLATABLE_KEY_DURATION_SEPARATOR;
+  }
+
   private Translations() {
     throw new UnsupportedOperationException("Cannot instantiate utility class");
   }
@@ -0,0 +1,124 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.util;
+
+import com.mojang.authlib.GameProfile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GameProfileIndex} meant to be updated as players join and leave while being read by
+ * command completions on other threads.
+ * <p>
+ * Profiles are kept sorted by lower case name in a skip list, so prefix lookups visit only the
+ * matching names and never lock.
+ */
+public final class ConcurrentGameProfileIndex implements GameProfileIndex {
+
+  private final Map<UUID, GameProfile> byUniqueId = new ConcurrentHashMap<>();
+  private final ConcurrentNavigableMap<String, GameProfile> byName = new ConcurrentSkipListMap<>();
+
+  ConcurrentGameProfileIndex() {
+  }
+
+  /**
+   * Adds a profile to the index, replacing the known profile with the same unique id, if any.
+   *
+   * @param profile
+   * @throws IllegalArgumentException if the profile has no unique id or no name.
+   */
+  public void add(final @NotNull GameProfile profile) {
+    requireNonNull(profile, "profile");
+    if (!profile.isComplete()) {
+      throw new IllegalArgumentException("Incomplete profile " + profile);
+    }
+
+    // updates of the same profile are serialized by the lock of its entry
+    this.byUniqueId.compute(profile.getId(), (uniqueId, previous) -> {
+      if (previous != null) {
+        this.byName.remove(key(previous.getName()), previous);
+      }
+      this.byName.put(key(profile.getName()), profile);
+      return profile;
+    });
+  }
+
+  /**
+   * @param uniqueId
+   * @return the removed profile, or {@code null} if it was not known.
+   */
+  public @Nullable GameProfile remove(final @NotNull UUID uniqueId) {
+    requireNonNull(uniqueId, "uniqueId");
+    final GameProfile[] removed = new GameProfile[1];
+    this.byUniqueId.computeIfPresent(uniqueId, (key, previous) -> {
+      // the name may belong to another profile by now
+      this.byName.remove(key(previous.getName()), previous);
+      removed[0] = previous;
+      return null;
+    });
+    return removed[0];
+  }
+
+  public int size() {
+    return this.byUniqueId.size();
+  }
+
+  @Override
+  public @Nullable GameProfile byName(final @NotNull String name) {
+    return this.byName.get(key(requireNonNull(name, "name")));
+  }
+
+  @Override
+  public @Nullable GameProfile byUniqueId(final @NotNull UUID uniqueId) {
+    return this.byUniqueId.get(requireNonNull(uniqueId, "uniqueId"));
+  }
+
+  @Override
+  public void forEachWithPrefix(final @NotNull String prefix, final @NotNull Consumer<? super GameProfile> action) {
+    requireNonNull(action, "action");
+    final String key = key(requireNonNull(prefix, "prefix"));
+    for (final Map.Entry<String, GameProfile> entry : this.byName.tailMap(key).entrySet()) {
+      if (!entry.getKey().startsWith(key)) {
+        break;
+      }
+      action.accept(entry.getValue());
+    }
+  }
+
+  private static String key(final String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
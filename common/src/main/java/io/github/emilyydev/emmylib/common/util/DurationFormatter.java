@@ -0,0 +1,208 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.util;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.github.emilyydev.emmylib.common.locale.Translations;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Writes durations for {@link MoreUtils#formatDuration(Duration, MoreUtils.DurationStyle, Appendable)}
+ * from precomputed unit tables, without creating intermediate strings.
+ */
+final class DurationFormatter {
+
+  private static final long[] UNIT_SECONDS = {
+      ChronoUnit.YEARS.getDuration().getSeconds(),
+      ChronoUnit.MONTHS.getDuration().getSeconds(),
+      ChronoUnit.WEEKS.getDuration().getSeconds(),
+      ChronoUnit.DAYS.getDuration().getSeconds(),
+      ChronoUnit.HOURS.getDuration().getSeconds(),
+      ChronoUnit.MINUTES.getDuration().getSeconds(),
+      1L
+  };
+
+  private static final String[] SHORT_UNITS = {"y", "mo", "w", "d", "h", "m", "s"};
+  private static final String[] LONG_UNITS = {" year", " month", " week", " day", " hour", " minute", " second"};
+  private static final String[] LONG_UNITS_PLURAL = {" years", " months", " weeks", " days", " hours", " minutes", " seconds"};
+  private static final String LONG_SEPARATOR = ", ";
+
+  private static final String[] UNIT_KEYS = {
+      Translations.translatableKeyDurationYears(),
+      Translations.translatableKeyDurationMonths(),
+      Translations.translatableKeyDurationWeeks(),
+      Translations.translatableKeyDurationDays(),
+      Translations.translatableKeyDurationHours(),
+      Translations.translatableKeyDurationMinutes(),
+      Translations.translatableKeyDurationSeconds()
+  };
+
+  // unit names are looked up once per locale, and again every so often to pick up translations
+  // registered later on
+  private static final LoadingCache<Locale, LocalizedUnits> LOCALIZED_UNITS =
+      Caffeine.newBuilder()
+              .expireAfterWrite(Duration.ofMinutes(1L))
+              .build(LocalizedUnits::new);
+
+  private static final UnitNames SHORT_NAMES = (unit, amount) -> SHORT_UNITS[unit];
+  private static final UnitNames LONG_NAMES = (unit, amount) -> amount > 1L ? LONG_UNITS_PLURAL[unit] : LONG_UNITS[unit];
+
+  static void format(final Duration duration, final MoreUtils.DurationStyle style, final Appendable out) throws IOException {
+    if (style == MoreUtils.DurationStyle.SHORT) {
+      format(duration, SHORT_NAMES, "", out);
+    } else {
+      format(duration, LONG_NAMES, LONG_SEPARATOR, out);
+    }
+  }
+
+  static void format(final Duration duration, final Locale locale, final Appendable out) throws IOException {
+    final LocalizedUnits units = LOCALIZED_UNITS.get(locale);
+    format(duration, units, units.separator, out);
+  }
+
+  private static void format(final Duration duration, final UnitNames names, final String separator,
+                             final Appendable out) throws IOException {
+    long remainder = duration.getSeconds();
+    boolean first = true;
+    for (int i = 0; i < UNIT_SECONDS.length; ++i) {
+      final long amount = remainder / UNIT_SECONDS[i];
+      remainder %= UNIT_SECONDS[i];
+      if (amount == 0L) {
+        continue;
+      }
+
+      if (!first) {
+        out.append(separator);
+      }
+      first = false;
+      appendNumber(amount, out);
+      out.append(names.name(i, amount));
+    }
+  }
+
+  // digits are written one by one, from the most significant one, rather than through a string
+  private static void appendNumber(final long number, final Appendable out) throws IOException {
+    if (out instanceof StringBuilder) {
+      ((StringBuilder) out).append(number);
+      return;
+    }
+
+    // negated rather than the other way around so Long.MIN_VALUE fits
+    final long negative;
+    if (number < 0L) {
+      out.append('-');
+      negative = number;
+    } else {
+      negative = -number;
+    }
+
+    long divisor = 1L;
+    while (negative / divisor <= -10L) {
+      divisor *= 10L;
+    }
+    for (; divisor > 0L; divisor /= 10L) {
+      out.append((char) ('0' - negative / divisor % 10L));
+    }
+  }
+
+  @FunctionalInterface
+  private interface UnitNames {
+
+    // the name of the given amount of the unit at the given index, with a leading space if any
+    String name(int unit, long amount);
+  }
+
+  /**
+   * Unit names translated with their choice patterns, which may tell apart any amount (Polish, for
+   * instance, uses one form for 2-4 and 22-24 and another for 5-21). Names are cached per amount, up
+   * to the amount after which the next bigger unit takes over, plus the first hundred years.
+   */
+  private static final class LocalizedUnits implements UnitNames {
+
+    private static final int CACHED_YEARS = 100;
+
+    // own copies of the translated formats, which are also shared with every component being rendered
+    private final MessageFormat[] formats = new MessageFormat[UNIT_KEYS.length];
+    private final String[][] names = new String[UNIT_KEYS.length][];
+    final String separator;
+
+    LocalizedUnits(final Locale locale) {
+      for (int i = 0; i < UNIT_KEYS.length; ++i) {
+        this.formats[i] = lookUp(UNIT_KEYS[i], locale);
+        this.names[i] = new String[i == 0 ? CACHED_YEARS : (int) (UNIT_SECONDS[i - 1] / UNIT_SECONDS[i]) + 1];
+      }
+      final MessageFormat separator = lookUp(Translations.translatableKeyDurationSeparator(), locale);
+      this.separator = separator == null ? LONG_SEPARATOR : separator.format(new Object[] {0L});
+    }
+
+    @Override
+    public String name(final int unit, final long amount) {
+      final String[] names = this.names[unit];
+      // negative durations have negative amounts
+      if (amount < 0L || amount >= names.length) {
+        return translate(unit, amount);
+      }
+
+      // racing threads compute the same name
+      String name = names[(int) amount];
+      if (name == null) {
+        name = translate(unit, amount);
+        names[(int) amount] = name;
+      }
+      return name;
+    }
+
+    private String translate(final int unit, final long amount) {
+      final MessageFormat format = this.formats[unit];
+      if (format == null) {
+        return LONG_NAMES.name(unit, amount);
+      }
+      synchronized (format) {
+        return ' ' + format.format(new Object[] {amount});
+      }
+    }
+
+    private static MessageFormat lookUp(final String key, final Locale locale) {
+      final MessageFormat format = Translations.translationRegistry().translate(key, locale);
+      if (format == null) {
+        return null;
+      }
+      synchronized (format) {
+        return (MessageFormat) format.clone();
+      }
+    }
+  }
+
+  private DurationFormatter() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+}
@@ -34,23 +34,45 @@ import io.github.emilyydev.emmylib.common.util.function.Throwing;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public interface GameProfileFetchers {
 
+  /**
+   * Looks up the profile with the given unique id, with its signed properties.
+   * <p>
+   * The future completes exceptionally with a {@link NoProfileFoundException} if no profile has the
+   * unique id.
+   *
+   * @param uuid
+   * @return
+   */
   static CompletableFuture<JsonObject> fetchProfileJson(final UUID uuid) {
     return CompletableFuture.supplyAsync(Throwing.Supplier.sneaky(() -> {
       final var httpRequest = HttpRequest.newBuilder(profileUrl(uuid).toURI())
                                          .header("User-Agent", GameProfileFetchers.class.getCanonicalName())
                                          .GET().build();
       final var gsonBodyHandler = MoreBodyHandlers.gson(GsonProvider.simple(), JsonObject.class);
-      return HttpClient.newHttpClient().send(httpRequest, gsonBodyHandler).body();
+      final var response = HttpClient.newHttpClient().send(httpRequest, gsonBodyHandler);
+      final var body = response.body();
+      // unknown unique ids get an empty response
+      if (response.statusCode() != 200 || body == null || !body.has("name")) {
+        throw new NoProfileFoundException(uuid.toString(), "No profile found for unique id " + uuid);
+      }
+      return body;
     }));
   }
 
+  /**
+   * @param uuid
+   * @return
+   * @see #fetchProfileJson(UUID)
+   */
   static CompletableFuture<GameProfile> fetchGameProfile(final UUID uuid) {
     return fetchProfileJson(uuid).thenApplyAsync(profile -> {
       final var gameProfile = new GameProfile(uuid, profile.getAsJsonPrimitive("name").getAsString());
@@ -60,6 +82,34 @@ public interface GameProfileFetchers {
     });
   }
 
+  /**
+   * Looks up the unique id of the profile currently using the given name, ignoring case.
+   * <p>
+   * The future completes exceptionally with a {@link NoProfileFoundException} if no profile uses the
+   * name.
+   *
+   * @param name
+   * @return
+   */
+  static CompletableFuture<UUID> fetchUniqueId(final String name) {
+    return CompletableFuture.supplyAsync(Throwing.Supplier.sneaky(() -> {
+      final var httpRequest = HttpRequest.newBuilder(uniqueIdUrl(name).toURI())
+                                         .header("User-Agent", GameProfileFetchers.class.getCanonicalName())
+                                         .GET().build();
+      final var gsonBodyHandler = MoreBodyHandlers.gson(GsonProvider.simple(), JsonObject.class);
+      final var response = HttpClient.newHttpClient().send(httpRequest, gsonBodyHandler);
+      final var body = response.body();
+      if (response.statusCode() != 200 || body == null || !body.has("id")) {
+        throw new NoProfileFoundException(name);
+      }
+      return UUIDTypeAdapter.fromString(body.getAsJsonPrimitive("id").getAsString());
+    }));
+  }
+
+  static CompletableFuture<GameProfile> fetchGameProfile(final String name) {
+    return fetchUniqueId(name).thenCompose(GameProfileFetchers::fetchGameProfile);
+  }
+
   static CompletableFuture<Property> fetchSkin(final UUID uuid) {
     return fetchGameProfile(uuid).thenApplyAsync(Throwing.Function.sneaky(profile -> {
       final var it = profile.getProperties().get("textures").iterator();
@@ -74,4 +124,8 @@ public interface GameProfileFetchers {
   private static URL profileUrl(final UUID uuid) throws MalformedURLException {
     return new URL(String.format("https://sessionserver.mojang.com/session/minecraft/profile/%s?unsigned=false", UUIDTypeAdapter.fromUUID(uuid)));
   }
+
+  private static URL uniqueIdUrl(final String name) throws MalformedURLException {
+    return new URL("https://api.mojang.com/users/profiles/minecraft/" + URLEncoder.encode(name, StandardCharsets.UTF_8));
+  }
 }
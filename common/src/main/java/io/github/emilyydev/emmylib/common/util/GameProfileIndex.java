@@ -0,0 +1,72 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.util;
+
+import com.mojang.authlib.GameProfile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * An in-memory lookup of profiles by name or unique id, such as the profiles of the players online,
+ * backing {@link io.github.emilyydev.emmylib.common.command.argument.GameProfileArgumentType}.
+ * <p>
+ * Implementations must be safe to read from any thread, and must never block on I/O since they are
+ * queried while completing commands.
+ */
+public interface GameProfileIndex {
+
+  /**
+   * Creates an empty index that can be updated concurrently while being read.
+   *
+   * @return
+   */
+  static ConcurrentGameProfileIndex concurrent() {
+    return new ConcurrentGameProfileIndex();
+  }
+
+  /**
+   * @param name
+   * @return the profile with the given name ignoring case, or {@code null} if it is not known.
+   */
+  @Nullable GameProfile byName(@NotNull String name);
+
+  /**
+   * @param uniqueId
+   * @return the profile with the given unique id, or {@code null} if it is not known.
+   */
+  @Nullable GameProfile byUniqueId(@NotNull UUID uniqueId);
+
+  /**
+   * Visits the known profiles whose name starts with the given prefix ignoring case.
+   *
+   * @param prefix
+   * @param action
+   */
+  void forEachWithPrefix(@NotNull String prefix, @NotNull Consumer<? super GameProfile> action);
+}
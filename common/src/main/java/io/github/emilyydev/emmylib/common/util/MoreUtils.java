@@ -25,15 +25,17 @@
 
 package io.github.emilyydev.emmylib.common.util;
 
+import io.github.emilyydev.emmylib.common.locale.Translations;
 import io.github.emilyydev.emmylib.common.util.function.Throwing;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.Locale;
-import java.util.Objects;
-import java.util.StringJoiner;
+
+import static java.util.Objects.requireNonNull;
 
 public interface MoreUtils {
 
@@ -46,93 +48,75 @@ public interface MoreUtils {
   }
 
   static @NotNull String shortDuration(final @NotNull Duration duration) {
-    Objects.requireNonNull(duration, "duration");
-
-    final StringJoiner joiner = new StringJoiner("");
-
-    long years = duration.getSeconds();
-    long months = years % ChronoUnit.YEARS.getDuration().getSeconds();
-    long weeks = months % ChronoUnit.MONTHS.getDuration().getSeconds();
-    long days = weeks % ChronoUnit.WEEKS.getDuration().getSeconds();
-    long hours = days % ChronoUnit.DAYS.getDuration().getSeconds();
-    long minutes = hours % ChronoUnit.HOURS.getDuration().getSeconds();
-    final long seconds = minutes % ChronoUnit.MINUTES.getDuration().getSeconds();
-
-    years /= ChronoUnit.YEARS.getDuration().getSeconds();
-    months /= ChronoUnit.MONTHS.getDuration().getSeconds();
-    weeks /= ChronoUnit.WEEKS.getDuration().getSeconds();
-    days /= ChronoUnit.DAYS.getDuration().getSeconds();
-    hours /= ChronoUnit.HOURS.getDuration().getSeconds();
-    minutes /= ChronoUnit.MINUTES.getDuration().getSeconds();
-
-    if (years != 0) {
-      joiner.add(years + "y");
-    }
-    if (months != 0) {
-      joiner.add(months + "mo");
-    }
-    if (weeks != 0) {
-      joiner.add(weeks + "w");
-    }
-    if (days != 0) {
-      joiner.add(days + "d");
-    }
-    if (hours != 0) {
-      joiner.add(hours + "h");
-    }
-    if (minutes != 0) {
-      joiner.add(minutes + "m");
-    }
-    if (seconds != 0) {
-      joiner.add(seconds + "s");
-    }
-
-    return joiner.toString();
+    return formatDuration(duration, DurationStyle.SHORT, new StringBuilder()).toString();
   }
 
   static @NotNull String longDuration(final @NotNull Duration duration) {
-    Objects.requireNonNull(duration, "duration");
-
-    final StringJoiner joiner = new StringJoiner(", ");
-
-    long years = duration.getSeconds();
-    long months = years % ChronoUnit.YEARS.getDuration().getSeconds();
-    long weeks = months % ChronoUnit.MONTHS.getDuration().getSeconds();
-    long days = weeks % ChronoUnit.WEEKS.getDuration().getSeconds();
-    long hours = days % ChronoUnit.DAYS.getDuration().getSeconds();
-    long minutes = hours % ChronoUnit.HOURS.getDuration().getSeconds();
-    final long seconds = minutes % ChronoUnit.MINUTES.getDuration().getSeconds();
-
-    years /= ChronoUnit.YEARS.getDuration().getSeconds();
-    months /= ChronoUnit.MONTHS.getDuration().getSeconds();
-    weeks /= ChronoUnit.WEEKS.getDuration().getSeconds();
-    days /= ChronoUnit.DAYS.getDuration().getSeconds();
-    hours /= ChronoUnit.HOURS.getDuration().getSeconds();
-    minutes /= ChronoUnit.MINUTES.getDuration().getSeconds();
-
-    if (years != 0) {
-      joiner.add(years + " year" + (years > 1 ? "s" : ""));
-    }
-    if (months != 0) {
-      joiner.add(months + " month" + (months > 1 ? "s" : ""));
-    }
-    if (weeks != 0) {
-      joiner.add(weeks + " week" + (weeks > 1 ? "s" : ""));
-    }
-    if (days != 0) {
-      joiner.add(days + " day" + (days > 1 ? "s" : ""));
-    }
-    if (hours != 0) {
-      joiner.add(hours + " hour" + (hours > 1 ? "s" : ""));
-    }
-    if (minutes != 0) {
-      joiner.add(minutes + " minute" + (minutes > 1 ? "s" : ""));
-    }
-    if (seconds != 0) {
-      joiner.add(seconds + " second" + (seconds > 1 ? "s" : ""));
+    return formatDuration(duration, DurationStyle.LONG, new StringBuilder()).toString();
+  }
+
+  /**
+   * Writes a duration, down to the second, in the given style: {@code 1h30m} or
+   * {@code 1 hour, 30 minutes}. Nothing is written for durations shorter than a second.
+   *
+   * @param duration
+   * @param style
+   * @param out
+   * @throws IOException if writing fails.
+   */
+  static void formatDuration(final @NotNull Duration duration, final @NotNull DurationStyle style,
+                             final @NotNull Appendable out) throws IOException {
+    DurationFormatter.format(requireNonNull(duration, "duration"), requireNonNull(style, "style"), requireNonNull(out, "out"));
+  }
+
+  /**
+   * @param duration
+   * @param style
+   * @param out
+   * @return the given string builder.
+   * @see #formatDuration(Duration, DurationStyle, Appendable)
+   */
+  static @NotNull StringBuilder formatDuration(final @NotNull Duration duration, final @NotNull DurationStyle style,
+                                               final @NotNull StringBuilder out) {
+    try {
+      formatDuration(duration, style, (Appendable) out);
+    } catch (final IOException exception) {
+      // never thrown by string builders
+      throw new UncheckedIOException(exception);
     }
+    return out;
+  }
 
-    return joiner.toString();
+  /**
+   * Writes a duration, down to the second, in the long style translated to the given locale with the
+   * unit names registered in {@link Translations}.
+   *
+   * @param duration
+   * @param locale
+   * @param out
+   * @throws IOException if writing fails.
+   */
+  static void formatDuration(final @NotNull Duration duration, final @NotNull Locale locale,
+                             final @NotNull Appendable out) throws IOException {
+    DurationFormatter.format(requireNonNull(duration, "duration"), requireNonNull(locale, "locale"), requireNonNull(out, "out"));
+  }
+
+  /**
+   * @param duration
+   * @param locale
+   * @param out
+   * @return the given string builder.
+   * @see #formatDuration(Duration, Locale, Appendable)
+   */
+  static @NotNull StringBuilder formatDuration(final @NotNull Duration duration, final @NotNull Locale locale,
+                                               final @NotNull StringBuilder out) {
+    try {
+      formatDuration(duration, locale, (Appendable) out);
+    } catch (final IOException exception) {
+      // never thrown by string builders
+      throw new UncheckedIOException(exception);
+    }
+    return out;
   }
 
   @SuppressWarnings("unchecked")
@@ -207,4 +191,15 @@ public interface MoreUtils {
       return null;  // won't be reached
     }
   }
+
+  enum DurationStyle {
+    /**
+     * {@code 1h30m}
+     */
+    SHORT,
+    /**
+     * {@code 1 hour, 30 minutes}
+     */
+    LONG
+  }
 }
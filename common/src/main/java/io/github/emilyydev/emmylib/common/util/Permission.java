@@ -27,31 +27,46 @@ package io.github.emilyydev.emmylib.common.util;
 
 import io.github.emilyydev.emmylib.common.command.Permissible;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A permission requirement.
+ * <p>
+ * Permissions keep track of the permission strings they check, so requirements built only out of
+ * permissions (see {@link #isPermissionOnly()}) can be evaluated ahead of time for a given set of
+ * granted permissions, as done by {@link io.github.emilyydev.emmylib.common.command.CommandHandler#cachePermissionProfiles(boolean)}.
+ */
 public final class Permission implements Predicate<Permissible> {
 
   public static Permission has(final @NotNull String permission) {
     requireNonNull(permission, "permission");
-    return new Permission(permissible -> permissible.hasPermission(permission));
+    return new Permission(permissible -> permissible.hasPermission(permission), Set.of(permission), true);
   }
 
   public static Permission lacks(final @NotNull String permission) {
-    return new Permission(permissible -> !permissible.hasPermission(permission));
+    requireNonNull(permission, "permission");
+    return new Permission(permissible -> !permissible.hasPermission(permission), Set.of(permission), true);
   }
 
   private final Predicate<Permissible> delegate;
+  private final Set<String> permissions;
+  private final boolean permissionOnly;
 
-  private Permission(Predicate<Permissible> delegate) {
+  private Permission(Predicate<Permissible> delegate, final Set<String> permissions, final boolean permissionOnly) {
     // we only need the root delegate predicate
     while (delegate instanceof Permission) {
       delegate = ((Permission) delegate).delegate;
     }
 
     this.delegate = delegate;
+    this.permissions = permissions;
+    this.permissionOnly = permissionOnly;
   }
 
   @Override
@@ -59,30 +74,77 @@ public final class Permission implements Predicate<Permissible> {
     return this.delegate.test(permissible);
   }
 
+  /**
+   * The permissions checked by this requirement.
+   *
+   * @return the permissions checked by this requirement.
+   */
+  public @NotNull @Unmodifiable Set<String> referencedPermissions() {
+    return this.permissions;
+  }
+
+  /**
+   * If the outcome of this requirement depends only on whether its
+   * {@linkplain #referencedPermissions() referenced permissions} are granted, that is, it wasn't
+   * combined with any predicate that is not a {@link Permission} itself.
+   *
+   * @return {@code true} if this requirement only checks permissions.
+   */
+  public boolean isPermissionOnly() {
+    return this.permissionOnly;
+  }
+
+  /**
+   * Views this permission as the requirement of a command node whose subjects are of the given
+   * type, for use with {@link com.mojang.brigadier.builder.ArgumentBuilder#requires(Predicate)}.
+   *
+   * @param <P> the type of the command subjects.
+   * @return this permission.
+   */
+  @SuppressWarnings("unchecked")
+  public <P extends Permissible> @NotNull Predicate<P> requirement() {
+    // predicates only consume their argument, so a predicate of permissibles is one of any subtype
+    return (Predicate<P>) (Predicate<? super P>) this;
+  }
+
   @Override
   public @NotNull Permission and(final @NotNull Predicate<? super Permissible> other) {
     requireNonNull(other, "other");
-    return new Permission(this.delegate.and(other));
+    return new Permission(this.delegate.and(other), combinedPermissions(other), combinedPermissionOnly(other));
   }
 
   public @NotNull Permission and(final @NotNull String permission) {
     requireNonNull(permission, "permission");
-    return and(permissible -> permissible.hasPermission(permission));
+    return and(has(permission));
   }
 
   @Override
   public @NotNull Permission or(final @NotNull Predicate<? super Permissible> other) {
     requireNonNull(other, "other");
-    return new Permission(this.delegate.or(other));
+    return new Permission(this.delegate.or(other), combinedPermissions(other), combinedPermissionOnly(other));
   }
 
   public @NotNull Permission or(final @NotNull String permission) {
     requireNonNull(permission, "permission");
-    return or(permissible -> permissible.hasPermission(permission));
+    return or(has(permission));
   }
 
   @Override
   public @NotNull Permission negate() {
-    return new Permission(this.delegate.negate());
+    return new Permission(this.delegate.negate(), this.permissions, this.permissionOnly);
+  }
+
+  private Set<String> combinedPermissions(final Predicate<? super Permissible> other) {
+    if (!(other instanceof Permission)) {
+      return this.permissions;
+    }
+
+    final Set<String> permissions = new HashSet<>(this.permissions);
+    permissions.addAll(((Permission) other).permissions);
+    return Set.copyOf(permissions);
+  }
+
+  private boolean combinedPermissionOnly(final Predicate<? super Permissible> other) {
+    return this.permissionOnly && other instanceof Permission && ((Permission) other).permissionOnly;
   }
 }
@@ -81,6 +81,14 @@ public final class Vector2 implements Comparable<Vector2>, ByteSerializable {
     this.j = j;
   }
 
+  public double i() {
+    return this.i;
+  }
+
+  public double j() {
+    return this.j;
+  }
+
   public Vector2 add(final double i, final double j) {
     return at(this.i + i, this.j + j);
   }
@@ -83,6 +83,18 @@ public final class Vector3 implements Comparable<Vector3>, ByteSerializable {
     this.k = k;
   }
 
+  public double i() {
+    return this.i;
+  }
+
+  public double j() {
+    return this.j;
+  }
+
+  public double k() {
+    return this.k;
+  }
+
   public Vector3 add(final double i, final double j, final double k) {
     return at(this.i + i, this.j + j, this.k + k);
   }
@@ -0,0 +1,135 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class CommandAuditLogTest {
+
+  private static final long DEADLINE_NANOS = TimeUnit.SECONDS.toNanos(5L);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void ringWrapsAround() throws IOException {
+    final Path file = this.directory.resolve("commands.log");
+    final List<String> expected = new ArrayList<>();
+    try (final CommandAuditLog auditLog = CommandAuditLog.open(file, Long.MAX_VALUE, 0, 4)) {
+      // fill the whole ring on every lap, letting the writer drain it in between
+      for (int lap = 0; lap < 16; ++lap) {
+        for (int i = 0; i < 4; ++i) {
+          final String input = "say " + lap + ' ' + i;
+          auditLog.record("subject", input, CommandResult.Type.GENERIC_SUCCESS, 0L);
+          expected.add(input);
+        }
+        awaitWritten(auditLog, expected.size());
+      }
+
+      assertEquals(0L, auditLog.dropped());
+    }
+
+    assertEquals(expected, inputs(file));
+  }
+
+  @Test
+  void fullRingDropsRecords() throws IOException {
+    final Path file = this.directory.resolve("commands.log");
+    final CommandAuditLog auditLog = CommandAuditLog.open(file, Long.MAX_VALUE, 0, 1);
+    for (int i = 0; i < 1000; ++i) {
+      auditLog.record("subject", "say " + i, CommandResult.Type.GENERIC_SUCCESS, 0L);
+    }
+    auditLog.close();
+
+    assertEquals(1000L, auditLog.written() + auditLog.dropped());
+    assertEquals(auditLog.written(), inputs(file).size());
+  }
+
+  @Test
+  void closedLogDropsRecords() throws IOException {
+    final Path file = this.directory.resolve("commands.log");
+    final CommandAuditLog auditLog = CommandAuditLog.open(file);
+    auditLog.record("subject", "say before", CommandResult.Type.GENERIC_SUCCESS, 0L);
+    auditLog.close();
+    auditLog.record("subject", "say after", CommandResult.Type.GENERIC_SUCCESS, 0L);
+
+    assertEquals(1L, auditLog.written());
+    assertEquals(1L, auditLog.dropped());
+    assertEquals(List.of("say before"), inputs(file));
+  }
+
+  @Test
+  void recordsRacingCloseAreWrittenOrDropped() throws Exception {
+    final Path file = this.directory.resolve("commands.log");
+    final CommandAuditLog auditLog = CommandAuditLog.open(file, Long.MAX_VALUE, 0, 1 << 16);
+    final Thread[] recorders = new Thread[4];
+    for (int i = 0; i < recorders.length; ++i) {
+      recorders[i] = new Thread(() -> {
+        for (int j = 0; j < 10000; ++j) {
+          auditLog.record("subject", "say " + j, CommandResult.Type.GENERIC_SUCCESS, 0L);
+        }
+      });
+      recorders[i].start();
+    }
+    auditLog.close();
+    for (final Thread recorder : recorders) {
+      recorder.join();
+    }
+
+    assertEquals(recorders.length * 10000L, auditLog.written() + auditLog.dropped());
+    assertEquals(auditLog.written(), inputs(file).size());
+  }
+
+  private static void awaitWritten(final CommandAuditLog auditLog, final long written) {
+    final long start = System.nanoTime();
+    while (auditLog.written() < written) {
+      if (System.nanoTime() - start > DEADLINE_NANOS) {
+        fail("Only " + auditLog.written() + " of " + written + " records were written");
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  private static List<String> inputs(final Path file) throws IOException {
+    final List<String> inputs = new ArrayList<>();
+    for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      inputs.add(line.split("\t")[4]);
+    }
+    return inputs;
+  }
+}
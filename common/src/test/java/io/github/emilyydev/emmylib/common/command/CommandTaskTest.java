@@ -0,0 +1,150 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class CommandTaskTest {
+
+  private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(20L);
+  private static final long DEADLINE_NANOS = TimeUnit.SECONDS.toNanos(5L);
+
+  @Test
+  void cancelBeforeRunNeverRunsTheBody() {
+    final AtomicBoolean ran = new AtomicBoolean();
+    final CommandTask<String> task = new CommandTask<>(true, self -> {
+      ran.set(true);
+      return "done";
+    });
+
+    assertTrue(task.cancel(true));
+    task.run();
+
+    assertFalse(ran.get());
+    assertTrue(task.isCancelled());
+    assertFalse(task.timedOut());
+    assertTrue(token(task).isCancelled());
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+
+  @Test
+  void cancelIfQueuedOnlyCancelsBeforeRun() {
+    final CommandTask<String> queued = new CommandTask<>(true, self -> "done");
+    assertTrue(queued.cancelIfQueued());
+    queued.run();
+    assertTrue(queued.isCancelled());
+
+    final CommandTask<String> ran = new CommandTask<>(true, self -> "done");
+    ran.run();
+    assertFalse(ran.cancelIfQueued());
+    assertEquals("done", ran.getNow(null));
+    assertFalse(token(ran).isCancelled());
+  }
+
+  @Test
+  void timeoutDuringRunInterruptsOwnedThread() {
+    final CommandTask<String> task = new CommandTask<>(true, self -> {
+      self.startTimeout(TIMEOUT_NANOS, () -> "timed out");
+      Thread.sleep(TimeUnit.NANOSECONDS.toMillis(DEADLINE_NANOS));
+      return "done";
+    });
+
+    task.run();
+
+    assertEquals("timed out", task.getNow(null));
+    assertTrue(task.timedOut());
+    assertFalse(task.isCancelled());
+    assertTrue(token(task).isCancelled());
+    // the interrupt doesn't leak to the thread after the task
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+
+  @Test
+  void timeoutDuringRunOnlyCancelsTheTokenOfNotOwnedThread() {
+    final AtomicBoolean interrupted = new AtomicBoolean();
+    final CommandTask<String> task = new CommandTask<>(false, self -> {
+      self.startTimeout(TIMEOUT_NANOS, () -> "timed out");
+      awaitDone(self);
+      interrupted.set(Thread.currentThread().isInterrupted());
+      return "done";
+    });
+
+    task.run();
+
+    assertEquals("timed out", task.getNow(null));
+    assertTrue(task.timedOut());
+    assertTrue(token(task).isCancelled());
+    assertFalse(interrupted.get());
+  }
+
+  @Test
+  void finishingInTimeStopsTheTimeout() throws Exception {
+    final CommandTask<String> task = new CommandTask<>(true, self -> {
+      self.startTimeout(TIMEOUT_NANOS, () -> "timed out");
+      return "done";
+    });
+
+    task.run();
+    Thread.sleep(TimeUnit.NANOSECONDS.toMillis(TIMEOUT_NANOS) * 2L);
+
+    assertEquals("done", task.getNow(null));
+    assertFalse(task.timedOut());
+    assertFalse(token(task).isCancelled());
+  }
+
+  @Test
+  void cancelledTokenThrowsTimedOut() {
+    final CancellationToken token = new CancellationToken();
+    token.throwIfCancelled();
+
+    token.cancel();
+    final CustomCommandException exception = assertThrows(CustomCommandException.class, token::throwIfCancelled);
+    assertEquals(CommandResult.Type.TIMED_OUT, exception.getResultType());
+  }
+
+  private static CancellationToken token(final CommandTask<?> task) {
+    return task.tokenArgument().getResult();
+  }
+
+  private static void awaitDone(final CommandTask<?> task) {
+    final long start = System.nanoTime();
+    while (!task.isDone()) {
+      if (System.nanoTime() - start > DEADLINE_NANOS) {
+        fail("The task did not time out");
+      }
+      Thread.onSpinWait();
+    }
+  }
+}
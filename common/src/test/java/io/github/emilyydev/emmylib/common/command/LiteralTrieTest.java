@@ -0,0 +1,127 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LiteralTrieTest {
+
+  @Test
+  void emptyTrieFindsNothing() {
+    assertEquals(List.of(), find(LiteralTrie.empty(), ""));
+    assertEquals(List.of(), find(LiteralTrie.empty(), "a"));
+  }
+
+  @Test
+  void lookupFindsLiteralsWithPrefix() {
+    final LiteralTrie<Object> trie = trie("time", "test", "teleport", "team", "tell");
+
+    assertEquals(List.of("team", "teleport", "tell", "test", "time"), find(trie, ""));
+    assertEquals(List.of("team", "teleport", "tell", "test", "time"), find(trie, "t"));
+    assertEquals(List.of("team", "teleport", "tell", "test"), find(trie, "te"));
+    assertEquals(List.of("teleport", "tell"), find(trie, "tel"));
+    assertEquals(List.of("teleport"), find(trie, "tele"));
+    assertEquals(List.of("teleport"), find(trie, "teleport"));
+    assertEquals(List.of(), find(trie, "teleports"));
+    assertEquals(List.of(), find(trie, "telx"));
+    assertEquals(List.of(), find(trie, "x"));
+  }
+
+  @Test
+  void splitKeepsTheSubtreeOfTheSplitNode() {
+    // "teleport" is split into "tel" + "eport" when "tell" diverges, then "eport" into "e" + "port"
+    final LiteralTrie<Object> trie = trie("teleport", "teleporter", "tell", "telex");
+
+    assertEquals(List.of("teleport", "teleporter", "telex", "tell"), find(trie, "tel"));
+    assertEquals(List.of("teleport", "teleporter", "telex"), find(trie, "tele"));
+    assertEquals(List.of("teleport", "teleporter"), find(trie, "telep"));
+    assertEquals(List.of("teleporter"), find(trie, "teleporte"));
+  }
+
+  @Test
+  void keyEndingInsideALabelSplitsIt() {
+    final LiteralTrie<Object> trie = trie("abcd", "ab");
+
+    assertEquals(List.of("ab", "abcd"), find(trie, "a"));
+    assertEquals(List.of("ab", "abcd"), find(trie, "ab"));
+    assertEquals(List.of("abcd"), find(trie, "abc"));
+  }
+
+  @Test
+  void literalsDifferingInCaseShareTheirKey() {
+    final LiteralTrie<Object> trie = trie("Give", "give", "gift");
+
+    assertEquals(List.of("gift", "Give", "give"), find(trie, "gi"));
+    assertEquals(List.of("Give", "give"), find(trie, "give"));
+  }
+
+  @Test
+  void addingALiteralReplacesTheOneWithTheSameName() {
+    final LiteralCommandNode<Object> first = literal("kill");
+    final LiteralCommandNode<Object> second = literal("kill");
+    final LiteralTrie<Object> trie = LiteralTrie.<Object>empty().with(first).with(second);
+
+    final List<LiteralCommandNode<Object>> found = new ArrayList<>();
+    trie.forEachWithPrefix("kill", found::add);
+    assertEquals(1, found.size());
+    assertSame(second, found.get(0));
+  }
+
+  @Test
+  void previousVersionsAreUnchanged() {
+    final LiteralTrie<Object> before = trie("tell", "test");
+    final LiteralTrie<Object> after = before.with(literal("teleport"));
+
+    assertEquals(List.of("tell", "test"), find(before, "te"));
+    assertEquals(List.of("teleport", "tell", "test"), find(after, "te"));
+  }
+
+  private static LiteralTrie<Object> trie(final String... literals) {
+    LiteralTrie<Object> trie = LiteralTrie.empty();
+    for (final String literal : literals) {
+      trie = trie.with(literal(literal));
+    }
+    return trie;
+  }
+
+  private static LiteralCommandNode<Object> literal(final String literal) {
+    return LiteralArgumentBuilder.<Object>literal(literal).build();
+  }
+
+  private static List<String> find(final LiteralTrie<Object> trie, final String prefix) {
+    final List<String> found = new ArrayList<>();
+    trie.forEachWithPrefix(prefix, literal -> found.add(literal.getLiteral()));
+    return found;
+  }
+}
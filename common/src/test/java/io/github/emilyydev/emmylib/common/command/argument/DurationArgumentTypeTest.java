@@ -0,0 +1,149 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.command.argument;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DurationArgumentTypeTest {
+
+  private static final Duration YEAR = ChronoUnit.YEARS.getDuration();
+  private static final Duration MONTH = ChronoUnit.MONTHS.getDuration();
+
+  @Test
+  void acceptsEverySpelling() throws CommandSyntaxException {
+    assertSpellings(YEAR.multipliedBy(2L), "2y", "2ys", "2year", "2years");
+    assertSpellings(MONTH.multipliedBy(2L), "2mo", "2mos", "2month", "2months");
+    assertSpellings(Duration.ofDays(14L), "2w", "2ws", "2week", "2weeks");
+    assertSpellings(Duration.ofDays(2L), "2d", "2ds", "2day", "2days");
+    assertSpellings(Duration.ofHours(2L), "2h", "2hs", "2hr", "2hrs", "2hour", "2hours");
+    assertSpellings(Duration.ofMinutes(2L), "2m", "2ms", "2min", "2mins", "2minute", "2minutes");
+    assertSpellings(Duration.ofSeconds(2L), "2s", "2ss", "2sec", "2secs", "2second", "2seconds");
+    assertSpellings(Duration.ofMinutes(90L), "1H30M", "1Hour30Mins");
+  }
+
+  @Test
+  void combinesScalesInDecreasingOrder() throws CommandSyntaxException {
+    assertEquals(YEAR.plus(MONTH.multipliedBy(2L)).plusDays(25L).plusHours(5L).plusMinutes(6L).plusSeconds(7L),
+                 parse("1y2mo3w4d5h6m7s"));
+    assertInvalid("5s1m", 4);
+    assertInvalid("1m1m", 4);
+  }
+
+  @Test
+  void keepsFractions() throws CommandSyntaxException {
+    assertEquals(Duration.ofSeconds(4L, 45_000_000L), parse("4.045secs"));
+    assertEquals(Duration.ofSeconds(90L), parse("1.5m"));
+    assertEquals(Duration.ofMillis(500L), parse("0.5s"));
+    assertEquals(YEAR.multipliedBy(17L).dividedBy(2L), parse("8.5ys"));
+    assertInvalid("1.s", 3);
+  }
+
+  @Test
+  void trailingNumberIsSeconds() throws CommandSyntaxException {
+    assertEquals(Duration.ofSeconds(90L), parse("90"));
+    assertEquals(Duration.ofSeconds(90L), parse("1m30"));
+    assertEquals(Duration.ofSeconds(1L, 500_000_000L), parse("1.5"));
+  }
+
+  @Test
+  void quotedDurationMayBeSpacedOut() throws CommandSyntaxException {
+    final StringReader reader = new StringReader("\"1h 30 mins\" rest");
+    assertEquals(Duration.ofMinutes(90L), DurationArgumentType.duration().parse(reader));
+    assertEquals(12, reader.getCursor());
+  }
+
+  @Test
+  void stopsAtTheEndOfTheWord() throws CommandSyntaxException {
+    final StringReader reader = new StringReader("1h30m rest");
+    assertEquals(Duration.ofMinutes(90L), DurationArgumentType.duration().parse(reader));
+    assertEquals(5, reader.getCursor());
+  }
+
+  @Test
+  void errorCursors() {
+    assertInvalid("", 0);
+    assertInvalid("5x rest", 2);
+    assertInvalid("h", 1);
+    assertInvalid("99999999999999999999y", 21);
+
+    final DurationArgumentType bounded = DurationArgumentType.duration(Duration.ofMinutes(1L), Duration.ofHours(1L));
+    assertEquals(3, assertThrows(CommandSyntaxException.class, () -> bounded.parse(new StringReader("30s rest"))).getCursor());
+    assertEquals(2, assertThrows(CommandSyntaxException.class, () -> bounded.parse(new StringReader("1h"))).getCursor());
+  }
+
+  @Test
+  void parsesWithinBoundedReaders() throws CommandSyntaxException {
+    final StringReader rangeReader = new StringReader("1h..2h30 rest");
+    final Range<Duration> range = RangeArgumentType.durationRange().parse(rangeReader);
+    assertEquals(Duration.ofHours(1L), range.minimum());
+    assertEquals(Duration.ofHours(2L).plusSeconds(30L), range.maximum());
+    assertEquals(8, rangeReader.getCursor());
+
+    final StringReader listReader = new StringReader("5s,1m30,2.5h rest");
+    assertEquals(List.of(Duration.ofSeconds(5L), Duration.ofSeconds(90L), Duration.ofMinutes(150L)),
+                 ListArgumentType.listOf(DurationArgumentType.duration()).parse(listReader));
+    assertEquals(12, listReader.getCursor());
+  }
+
+  @Test
+  void suggestsSmallerScalesAfterATrailingNumber() {
+    assertEquals(List.of("1h5m", "1h5s"), suggest("1h5"));
+    assertEquals(List.of(), suggest("1h"));
+    assertEquals(List.of(), suggest("x"));
+  }
+
+  private static void assertSpellings(final Duration expected, final String... inputs) throws CommandSyntaxException {
+    for (final String input : inputs) {
+      assertEquals(expected, parse(input), input);
+    }
+  }
+
+  private static void assertInvalid(final String input, final int cursor) {
+    final CommandSyntaxException exception = assertThrows(CommandSyntaxException.class, () -> parse(input));
+    assertEquals(cursor, exception.getCursor());
+  }
+
+  private static Duration parse(final String input) throws CommandSyntaxException {
+    return DurationArgumentType.duration().parse(new StringReader(input));
+  }
+
+  private static List<String> suggest(final String input) {
+    return DurationArgumentType.duration().listSuggestions(null, new SuggestionsBuilder(input, 0)).join()
+                               .getList().stream().map(Suggestion::getText).collect(Collectors.toList());
+  }
+}
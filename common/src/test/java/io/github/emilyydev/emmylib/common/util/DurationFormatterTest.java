@@ -0,0 +1,72 @@
+//
+// This file is part of EmmyLib, licensed under the MIT License.
+//
+// Copyright (c) 2021 emilyy-dev
+// Copyright (c) contributors
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package io.github.emilyydev.emmylib.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DurationFormatterTest {
+
+  // 1 year, 2 months, 3 weeks, 4 days, 5 hours, 6 minutes and 7 seconds
+  private static final Duration EVERY_UNIT = Duration.ofSeconds(38994811L);
+
+  @Test
+  void shortStyle() {
+    assertEquals("1y2mo3w4d5h6m7s", MoreUtils.shortDuration(EVERY_UNIT));
+    assertEquals("1h30m", MoreUtils.shortDuration(Duration.ofMinutes(90L)));
+    assertEquals("", MoreUtils.shortDuration(Duration.ofMillis(999L)));
+  }
+
+  @Test
+  void longStyle() {
+    assertEquals("1 year, 2 months, 3 weeks, 4 days, 5 hours, 6 minutes, 7 seconds", MoreUtils.longDuration(EVERY_UNIT));
+    assertEquals("1 hour, 30 minutes", MoreUtils.longDuration(Duration.ofMinutes(90L)));
+  }
+
+  @Test
+  void localizedMatchesLongStyle() {
+    assertEquals(MoreUtils.longDuration(EVERY_UNIT), localized(EVERY_UNIT));
+    assertEquals("1 second", localized(Duration.ofSeconds(1L)));
+    // past the cached amounts
+    assertEquals("250 years", localized(Duration.ofSeconds(250L * 31556952L)));
+  }
+
+  @Test
+  void negativeDurations() {
+    final Duration duration = Duration.ofSeconds(-90L);
+    assertEquals("-1m-30s", MoreUtils.shortDuration(duration));
+    assertEquals(MoreUtils.longDuration(duration), localized(duration));
+    assertEquals(MoreUtils.longDuration(EVERY_UNIT.negated()), localized(EVERY_UNIT.negated()));
+  }
+
+  private static String localized(final Duration duration) {
+    return MoreUtils.formatDuration(duration, Locale.ENGLISH, new StringBuilder()).toString();
+  }
+}
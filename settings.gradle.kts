@@ -1,7 +1,8 @@
 rootProject.name = "emmylib"
 
 listOf(
-    "common"
+    "common",
+    "benchmark"
 ).forEach {
     include(it)
     findProject(":$it")?.name = "emmylib-$it"